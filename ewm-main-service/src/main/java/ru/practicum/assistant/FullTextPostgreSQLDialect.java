@@ -0,0 +1,30 @@
+package ru.practicum.assistant;
+
+import org.hibernate.dialect.PostgreSQL10Dialect;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Диалект PostgreSQL с функциями полнотекстового поиска событий.
+ * Текстовый вектор строится тем же выражением, что и GIN индекс ix_events_search
+ * в миграции db/migration/V2__event_search_indexes.sql, поэтому поиск использует индекс,
+ * а индекс обновляется базой данных при каждом изменении события.
+ */
+public class FullTextPostgreSQLDialect extends PostgreSQL10Dialect {
+    /**
+     * Текстовый вектор события по заголовку, аннотации и описанию.
+     */
+    private static final String DOCUMENT = "to_tsvector('russian', ?1 || ' ' || ?2 || ' ' || ?3)";
+    /**
+     * Поисковый запрос.
+     */
+    private static final String QUERY = "plainto_tsquery('russian', ?4)";
+
+    public FullTextPostgreSQLDialect() {
+        super();
+        registerFunction("fts_match", new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN,
+                "(" + DOCUMENT + " @@ " + QUERY + ")"));
+        registerFunction("fts_rank", new SQLFunctionTemplate(StandardBasicTypes.DOUBLE,
+                "ts_rank(" + DOCUMENT + ", " + QUERY + ")"));
+    }
+}
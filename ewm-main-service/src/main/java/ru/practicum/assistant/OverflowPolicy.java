@@ -0,0 +1,10 @@
+package ru.practicum.assistant;
+
+/**
+ * Класс перечислений вариантов поведения при переполнении буфера статистики.
+ */
+public enum OverflowPolicy {
+    DROP,
+    BLOCK,
+    SPILL
+}
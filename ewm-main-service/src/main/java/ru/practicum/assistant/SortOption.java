@@ -5,5 +5,6 @@ package ru.practicum.assistant;
  */
 public enum SortOption {
     EVENT_DATE,
-    VIEWS
+    VIEWS,
+    RELEVANCE
 }
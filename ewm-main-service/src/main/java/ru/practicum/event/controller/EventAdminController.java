@@ -5,6 +5,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.event.dto.EventFullDto;
+import ru.practicum.event.dto.EventSliceDto;
 import ru.practicum.event.dto.UpdateEventAdminRequest;
 import ru.practicum.event.service.EventService;
 
@@ -43,6 +44,26 @@ public class EventAdminController {
         return eventService.getEventsByAdmin(users, states, categories, rangeStart, rangeEnd, from, size);
     }
 
+    /**
+     * Обрабатывает запросы на предоставление списка событий для администратора постранично по курсору.
+     * Первая страница запрашивается с пустым курсором, следующие — с курсором из предыдущего ответа.
+     */
+    @GetMapping(params = "cursor")
+    @ResponseStatus(HttpStatus.OK)
+    public EventSliceDto<EventFullDto> getEventsByAdminByCursor(@RequestParam(required = false) Integer[] users,
+                                                                @RequestParam(required = false) String[] states,
+                                                                @RequestParam(required = false) Integer[] categories,
+                                                                @RequestParam(required = false)
+                                                                @DateTimeFormat(pattern = PATTERN)
+                                                                LocalDateTime rangeStart,
+                                                                @RequestParam(required = false)
+                                                                @DateTimeFormat(pattern = PATTERN)
+                                                                LocalDateTime rangeEnd,
+                                                                @RequestParam String cursor,
+                                                                @RequestParam(defaultValue = "10") int size) {
+        return eventService.getEventsByAdminByCursor(users, states, categories, rangeStart, rangeEnd, cursor, size);
+    }
+
     /**
      * Обрабатывает запросы на обновление события администратором.
      */
@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.assistant.SortOption;
 import ru.practicum.event.dto.EventFullDto;
 import ru.practicum.event.dto.EventShortDto;
+import ru.practicum.event.dto.EventSliceDto;
 import ru.practicum.event.service.EventService;
 
 import javax.servlet.http.HttpServletRequest;
@@ -56,4 +57,27 @@ public class EventPublicController {
         return eventService.getEvents(text, categories, paid, rangeStart, rangeEnd, onlyAvailable,
                 sortOption, from, size, request);
     }
+
+    /**
+     * Обрабатывает запросы на предоставление списка событий постранично по курсору.
+     * Первая страница запрашивается с пустым курсором, следующие — с курсором из предыдущего ответа.
+     */
+    @GetMapping(params = "cursor")
+    @ResponseStatus(HttpStatus.OK)
+    public EventSliceDto<EventShortDto> getEventsByCursor(@RequestParam(required = false) String text,
+                                                          @RequestParam(required = false) Integer[] categories,
+                                                          @RequestParam(required = false) Boolean paid,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(pattern = PATTERN) LocalDateTime rangeStart,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(pattern = PATTERN) LocalDateTime rangeEnd,
+                                                          @RequestParam(defaultValue = "false") Boolean onlyAvailable,
+                                                          @RequestParam(defaultValue = "EVENT_DATE")
+                                                          SortOption sortOption,
+                                                          @RequestParam String cursor,
+                                                          @RequestParam(defaultValue = "10") int size,
+                                                          HttpServletRequest request) {
+        return eventService.getEventsByCursor(text, categories, paid, rangeStart, rangeEnd, onlyAvailable,
+                sortOption, cursor, size, request);
+    }
 }
@@ -0,0 +1,30 @@
+package ru.practicum.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Класс страницы событий, предоставляемой по курсору, в формате DTO.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+public class EventSliceDto<T> {
+    /**
+     * Список событий страницы.
+     */
+    private List<T> content;
+    /**
+     * Признак наличия следующей страницы.
+     */
+    private boolean hasNext;
+    /**
+     * Курсор следующей страницы или null если страница последняя.
+     */
+    private String nextCursor;
+}
@@ -10,6 +10,7 @@ import ru.practicum.category.mapper.CategoryMapper;
 import ru.practicum.category.model.Category;
 import ru.practicum.event.dto.*;
 import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventShortView;
 import ru.practicum.user.dto.UserShortDto;
 import ru.practicum.user.mapper.UserMapper;
 import ru.practicum.user.model.User;
@@ -53,6 +54,16 @@ public interface EventMapper {
     @Named("toEventShortDto")
     EventShortDto toEventShortDto(Event event);
 
+    /**
+     * Конвертирует {@link EventShortView} в {@link EventShortDto}.
+     */
+    @Mapping(target = "category.id", source = "categoryId")
+    @Mapping(target = "category.name", source = "categoryName")
+    @Mapping(target = "initiator.id", source = "initiatorId")
+    @Mapping(target = "initiator.name", source = "initiatorName")
+    @Mapping(target = "eventDate", dateFormat = PATTERN)
+    EventShortDto toEventShortDto(EventShortView view);
+
     /**
      * Конвертирует {@link UpdateEventAdminRequest} в {@link UpdateEventUserRequest}.
      */
@@ -46,7 +46,7 @@ public class Event {
     /**
      * Количество одобренных заявок на участие в событии.
      */
-    @Column(name = "confirmed_requests")
+    @Column(name = "confirmed_requests", updatable = false)
     private int confirmedRequests;
     /**
      * Дата и время создания события.
@@ -115,6 +115,8 @@ public class Event {
     private String title;
     /**
      * Количество просмотрев события.
+     * Обновляется только синхронизацией с сервисом статистики.
      */
+    @Column(updatable = false)
     private int views;
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package ru.practicum.event.model;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import ru.practicum.exception.model.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Курсор постраничного предоставления событий.
+ * Хранит ключ сортировки последнего предоставленного события, следующая страница начинается сразу после него,
+ * поэтому глубина страницы не влияет на стоимость запроса.
+ * Клиенту курсор передается в виде непрозрачной строки.
+ */
+public class EventCursor {
+    /**
+     * Разделитель значений в курсоре.
+     */
+    private static final String SEPARATOR = "|";
+    /**
+     * Ключ сортировки.
+     */
+    private final Key key;
+    /**
+     * Дата события последнего предоставленного события.
+     */
+    private final LocalDateTime eventDate;
+    /**
+     * Количество просмотров последнего предоставленного события.
+     */
+    private final Integer views;
+    /**
+     * Уникальный идентификатор последнего предоставленного события или null для первой страницы.
+     */
+    private final Integer id;
+
+    private EventCursor(Key key, LocalDateTime eventDate, Integer views, Integer id) {
+        this.key = key;
+        this.eventDate = eventDate;
+        this.views = views;
+        this.id = id;
+    }
+
+    /**
+     * Варианты ключа сортировки.
+     */
+    public enum Key {
+        /**
+         * По дате события, затем по уникальному идентификатору.
+         */
+        EVENT_DATE,
+        /**
+         * По убыванию количества просмотров, затем по уникальному идентификатору.
+         */
+        VIEWS,
+        /**
+         * По уникальному идентификатору.
+         */
+        ID
+    }
+
+    /**
+     * Метод восстановления курсора из строки.
+     * Пустая строка соответствует первой странице.
+     * Генерирует {@link ValidationException} если курсор поврежден или получен для другой сортировки.
+     * @param token строка курсора.
+     * @param key ключ сортировки запроса.
+     * @return возвращает курсор в формате {@link EventCursor}.
+     */
+    public static EventCursor decode(String token, Key key) {
+        if (token == null || token.isBlank()) {
+            return new EventCursor(key, null, null, null);
+        }
+        try {
+            String[] values = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, -1);
+            if (values.length != 3 || !Key.valueOf(values[0]).equals(key)) {
+                throw new ValidationException("Курсор не соответствует сортировке запроса.");
+            }
+            int id = Integer.parseInt(values[2]);
+            switch (key) {
+                case EVENT_DATE:
+                    return new EventCursor(key, LocalDateTime.parse(values[1]), null, id);
+                case VIEWS:
+                    return new EventCursor(key, null, Integer.parseInt(values[1]), id);
+                default:
+                    return new EventCursor(key, null, null, id);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Курсор указан некорректно.");
+        }
+    }
+
+    /**
+     * Метод формирования курсора следующей страницы по последнему событию текущей страницы.
+     * @param eventDate дата события.
+     * @param views количество просмотров события.
+     * @param id уникальный идентификатор события.
+     * @return возвращает курсор в формате {@link EventCursor}.
+     */
+    public EventCursor next(LocalDateTime eventDate, int views, int id) {
+        return new EventCursor(key, eventDate, views, id);
+    }
+
+    /**
+     * Метод преобразования курсора в строку.
+     * @return возвращает строку курсора.
+     */
+    public String encode() {
+        String value = key.equals(Key.EVENT_DATE) ? String.valueOf(eventDate)
+                : key.equals(Key.VIEWS) ? String.valueOf(views) : "";
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.join(SEPARATOR, key.name(), value, String.valueOf(id))
+                        .getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Метод формирования условия отбора событий, следующих за курсором.
+     * @return возвращает условие или null для первой страницы.
+     */
+    public BooleanExpression after() {
+        if (id == null) {
+            return null;
+        }
+        QEvent event = QEvent.event;
+        switch (key) {
+            case EVENT_DATE:
+                return event.eventDate.gt(eventDate).or(event.eventDate.eq(eventDate).and(event.id.gt(id)));
+            case VIEWS:
+                return event.views.lt(views).or(event.views.eq(views).and(event.id.gt(id)));
+            default:
+                return event.id.gt(id);
+        }
+    }
+
+    /**
+     * Метод формирования порядка сортировки, соответствующего курсору.
+     * @return возвращает порядок сортировки.
+     */
+    public OrderSpecifier<?>[] order() {
+        QEvent event = QEvent.event;
+        switch (key) {
+            case EVENT_DATE:
+                return new OrderSpecifier<?>[]{event.eventDate.asc(), event.id.asc()};
+            case VIEWS:
+                return new OrderSpecifier<?>[]{event.views.desc(), event.id.asc()};
+            default:
+                return new OrderSpecifier<?>[]{event.id.asc()};
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.event.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Краткая информация о событии, выбираемая из базы данных только в объеме, необходимом для списка событий.
+ * Не является сущностью и не отслеживается контекстом постоянства.
+ */
+@Getter
+@AllArgsConstructor
+public class EventShortView {
+    /**
+     * Уникальный идентификатор события.
+     */
+    private final int id;
+    /**
+     * Краткое описание события.
+     */
+    private final String annotation;
+    /**
+     * Уникальный идентификатор категории.
+     */
+    private final int categoryId;
+    /**
+     * Название категории.
+     */
+    private final String categoryName;
+    /**
+     * Количество одобренных заявок на участие в данном событии.
+     */
+    private final int confirmedRequests;
+    /**
+     * Дата и время на которые намечено событие.
+     */
+    private final LocalDateTime eventDate;
+    /**
+     * Уникальный идентификатор организатора.
+     */
+    private final int initiatorId;
+    /**
+     * Имя организатора.
+     */
+    private final String initiatorName;
+    /**
+     * Нужно ли оплачивать участие в событии.
+     */
+    private final Boolean paid;
+    /**
+     * Заголовок события.
+     */
+    private final String title;
+    /**
+     * Количество просмотров события.
+     */
+    private final int views;
+}
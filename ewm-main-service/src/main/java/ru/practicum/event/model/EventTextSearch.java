@@ -0,0 +1,36 @@
+package ru.practicum.event.model;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+
+/**
+ * Выражения полнотекстового поиска событий по заголовку, аннотации и описанию.
+ * Функции поиска объявлены в {@link ru.practicum.assistant.FullTextPostgreSQLDialect}.
+ */
+public final class EventTextSearch {
+    private EventTextSearch() {
+    }
+
+    /**
+     * Условие соответствия события поисковому запросу.
+     * @param text текст поискового запроса.
+     * @return возвращает условие в формате {@link BooleanExpression}.
+     */
+    public static BooleanExpression matches(String text) {
+        QEvent event = QEvent.event;
+        return Expressions.booleanTemplate("fts_match({0}, {1}, {2}, {3}) = true",
+                event.title, event.annotation, event.description, Expressions.constant(text));
+    }
+
+    /**
+     * Релевантность события поисковому запросу.
+     * @param text текст поискового запроса.
+     * @return возвращает релевантность в формате {@link NumberExpression}.
+     */
+    public static NumberExpression<Double> rank(String text) {
+        QEvent event = QEvent.event;
+        return Expressions.numberTemplate(Double.class, "fts_rank({0}, {1}, {2}, {3})",
+                event.title, event.annotation, event.description, Expressions.constant(text));
+    }
+}
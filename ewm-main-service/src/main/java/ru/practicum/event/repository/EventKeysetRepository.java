@@ -0,0 +1,19 @@
+package ru.practicum.event.repository;
+
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Slice;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventCursor;
+
+/**
+ * Репозиторий постраничного предоставления событий по курсору.
+ */
+public interface EventKeysetRepository {
+    /**
+     * Предоставляет события, удовлетворяющие условию и следующие за курсором, без подсчета их общего количества.
+     * @param predicate условие отбора событий.
+     * @param cursor курсор в формате {@link EventCursor}.
+     * @param size количество событий на странице.
+     */
+    Slice<Event> findAllAfter(Predicate predicate, EventCursor cursor, int size);
+}
@@ -0,0 +1,41 @@
+package ru.practicum.event.repository;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventCursor;
+import ru.practicum.event.model.QEvent;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * Реализация репозитория постраничного предоставления событий по курсору.
+ * Запрашивает на одно событие больше размера страницы, чтобы определить наличие следующей страницы.
+ */
+@RequiredArgsConstructor
+public class EventKeysetRepositoryImpl implements EventKeysetRepository {
+    /**
+     * Предоставляет доступ к контексту постоянства.
+     */
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<Event> findAllAfter(Predicate predicate, EventCursor cursor, int size) {
+        List<Event> events = new JPAQueryFactory(entityManager)
+                .selectFrom(QEvent.event)
+                .join(QEvent.event.category).fetchJoin()
+                .join(QEvent.event.initiator).fetchJoin()
+                .join(QEvent.event.location).fetchJoin()
+                .where(predicate, cursor.after())
+                .orderBy(cursor.order())
+                .limit(size + 1)
+                .fetch();
+        boolean hasNext = events.size() > size;
+        return new SliceImpl<>(hasNext ? events.subList(0, size) : events, PageRequest.of(0, size), hasNext);
+    }
+}
@@ -1,9 +1,15 @@
 package ru.practicum.event.repository;
 
+import com.querydsl.core.types.Predicate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.assistant.State;
 import ru.practicum.category.model.Category;
 import ru.practicum.event.model.Event;
 import ru.practicum.user.model.User;
@@ -13,17 +19,82 @@ import java.util.List;
 /**
  * Репозиторий данных событий.
  */
-public interface EventRepository extends JpaRepository<Event, Integer>, QuerydslPredicateExecutor<Event> {
+public interface EventRepository extends JpaRepository<Event, Integer>, QuerydslPredicateExecutor<Event>,
+        EventViewsRepository, EventKeysetRepository, EventShortViewRepository {
+    /**
+     * Предоставляет список событий по условию.
+     * Категория, организатор и место проведения загружаются тем же запросом.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"category", "initiator", "location"})
+    Page<Event> findAll(Predicate predicate, Pageable pageable);
+
     /**
      * Предоставляет список событий организатора.
+     * Категория, организатор и место проведения загружаются тем же запросом.
      */
+    @EntityGraph(attributePaths = {"category", "initiator", "location"})
     Page<Event> findAllByInitiator(User user, Pageable pageable);
 
     /**
      * Предоставляет список событий по списку уникальных идентификаторов.
+     * Категория, организатор и место проведения загружаются тем же запросом.
      */
+    @EntityGraph(attributePaths = {"category", "initiator", "location"})
     List<Event> findAllByIdIn(List<Integer> ids);
 
+    /**
+     * Предоставляет уникальные идентификаторы событий в указанном статусе,
+     * следующие за указанным идентификатором, в порядке возрастания.
+     */
+    @Query("SELECT e.id FROM Event e WHERE e.state = :state AND e.id > :afterId ORDER BY e.id")
+    List<Integer> findIdsByState(@Param("state") State state, @Param("afterId") int afterId, Pageable pageable);
+
+    /**
+     * Изменяет количество одобренных заявок на участие в событии на указанную величину одним запросом,
+     * без чтения текущего значения.
+     * @return возвращает количество обновленных событий.
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.confirmedRequests = e.confirmedRequests + :delta WHERE e.id = :id")
+    int addConfirmedRequests(@Param("id") int id, @Param("delta") int delta);
+
+    /**
+     * Резервирует места для одобряемых заявок на участие в событии одним запросом.
+     * Количество одобренных заявок увеличивается только если после увеличения оно не превысит
+     * максимальное количество участников, поэтому конкурирующие запросы не могут превысить ограничение.
+     * @return возвращает 1 если места зарезервированы и 0 если мест недостаточно.
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.confirmedRequests = e.confirmedRequests + :count " +
+            "WHERE e.id = :id AND (e.participantLimit = 0 OR e.confirmedRequests + :count <= e.participantLimit)")
+    int reserveConfirmedRequests(@Param("id") int id, @Param("count") int count);
+
+    /**
+     * Предоставляет уникальные идентификаторы событий, количество одобренных заявок которых
+     * расходится с заявками. Результат не блокирует события и требует перепроверки.
+     */
+    @Query(value = "SELECT e.id FROM events e " +
+            "WHERE e.confirmed_requests <> (SELECT COUNT(*) FROM requests r " +
+            "WHERE r.event_id = e.id AND r.state = 'CONFIRMED') " +
+            "ORDER BY e.id", nativeQuery = true)
+    List<Integer> findConfirmedRequestsMismatches();
+
+    /**
+     * Блокирует событие до конца транзакции и предоставляет количество одобренных заявок на участие в нем.
+     * @return возвращает количество одобренных заявок или null если событие не найдено.
+     */
+    @Query(value = "SELECT confirmed_requests FROM events WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Integer lockConfirmedRequests(@Param("id") int id);
+
+    /**
+     * Устанавливает количество одобренных заявок на участие в событии.
+     * @return возвращает количество обновленных событий.
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.confirmedRequests = :confirmed WHERE e.id = :id")
+    int setConfirmedRequests(@Param("id") int id, @Param("confirmed") int confirmed);
+
     /**
      * Проверяет наличие события с категорией.
      */
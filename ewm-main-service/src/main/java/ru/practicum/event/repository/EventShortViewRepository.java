@@ -0,0 +1,21 @@
+package ru.practicum.event.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import ru.practicum.event.model.EventShortView;
+
+import java.util.List;
+
+/**
+ * Репозиторий краткой информации о событиях.
+ */
+public interface EventShortViewRepository {
+    /**
+     * Предоставляет краткую информацию о событиях, удовлетворяющих условию.
+     * @param predicate условие отбора событий.
+     * @param order порядок сортировки.
+     * @param offset количество событий, которые нужно пропустить.
+     * @param limit максимальное количество событий.
+     */
+    List<EventShortView> findShortViews(Predicate predicate, OrderSpecifier<?>[] order, long offset, int limit);
+}
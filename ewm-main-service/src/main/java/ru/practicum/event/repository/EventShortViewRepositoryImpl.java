@@ -0,0 +1,51 @@
+package ru.practicum.event.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.event.model.EventShortView;
+import ru.practicum.event.model.QEvent;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * Реализация репозитория краткой информации о событиях.
+ * Выбирает только столбцы краткой информации, без подробного описания события, в транзакции только для чтения.
+ */
+@RequiredArgsConstructor
+public class EventShortViewRepositoryImpl implements EventShortViewRepository {
+    /**
+     * Предоставляет доступ к контексту постоянства.
+     */
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EventShortView> findShortViews(Predicate predicate, OrderSpecifier<?>[] order, long offset,
+                                               int limit) {
+        QEvent event = QEvent.event;
+        return new JPAQueryFactory(entityManager)
+                .select(Projections.constructor(EventShortView.class,
+                        event.id,
+                        event.annotation,
+                        event.category.id,
+                        event.category.name,
+                        event.confirmedRequests,
+                        event.eventDate,
+                        event.initiator.id,
+                        event.initiator.name,
+                        event.paid,
+                        event.title,
+                        event.views))
+                .from(event)
+                .where(predicate)
+                .orderBy(order)
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.event.repository;
+
+import java.util.Map;
+
+/**
+ * Репозиторий количества просмотров событий.
+ */
+public interface EventViewsRepository {
+    /**
+     * Сохраняет количество просмотров событий одним пакетом.
+     * Строки, значение которых не изменилось, не перезаписываются.
+     * @param views количество просмотров по уникальному идентификатору события.
+     */
+    void updateViews(Map<Integer, Integer> views);
+}
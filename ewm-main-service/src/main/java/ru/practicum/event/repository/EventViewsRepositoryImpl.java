@@ -0,0 +1,32 @@
+package ru.practicum.event.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Реализация репозитория количества просмотров событий.
+ */
+@RequiredArgsConstructor
+public class EventViewsRepositoryImpl implements EventViewsRepository {
+    /**
+     * Запрос на обновление количества просмотров.
+     */
+    private static final String UPDATE_VIEWS = "UPDATE events SET views = ? WHERE id = ? AND views <> ?";
+    /**
+     * Предоставляет доступ к JDBC.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void updateViews(Map<Integer, Integer> views) {
+        if (views.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_VIEWS, views.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey(), entry.getValue()})
+                .collect(Collectors.toList()));
+    }
+}
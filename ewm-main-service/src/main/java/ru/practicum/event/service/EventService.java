@@ -33,6 +33,15 @@ public interface EventService {
     List<EventFullDto> getEventsByAdmin(Integer[] users, String[] states, Integer[] categories,
                                         LocalDateTime rangeStart, LocalDateTime rangeEnd, int from, int size);
 
+    EventSliceDto<EventShortDto> getEventsByCursor(String text, Integer[] categories, Boolean paid,
+                                                   LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                   Boolean onlyAvailable, SortOption sort, String cursor, int size,
+                                                   HttpServletRequest request);
+
+    EventSliceDto<EventFullDto> getEventsByAdminByCursor(Integer[] users, String[] states, Integer[] categories,
+                                                         LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                         String cursor, int size);
+
     EventFullDto updateByIdByAdmin(int eventId, UpdateEventAdminRequest request);
 
     List<Event> findAllByIds(List<Integer> ids);
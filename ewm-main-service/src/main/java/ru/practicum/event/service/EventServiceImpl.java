@@ -1,30 +1,32 @@
 package ru.practicum.event.service;
 
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.StatDto;
-import ru.practicum.StatResponseDto;
 import ru.practicum.assistant.SortOption;
 import ru.practicum.assistant.State;
 import ru.practicum.category.service.CategoryService;
 import ru.practicum.event.dto.*;
 import ru.practicum.event.mapper.EventMapper;
 import ru.practicum.event.model.Event;
+import ru.practicum.event.model.EventCursor;
+import ru.practicum.event.model.EventShortView;
+import ru.practicum.event.model.EventTextSearch;
 import ru.practicum.event.model.QEvent;
 import ru.practicum.event.repository.EventRepository;
 import ru.practicum.exception.model.ConflictException;
 import ru.practicum.exception.model.NotFoundException;
 import ru.practicum.exception.model.ValidationException;
 import ru.practicum.event.repository.LocationRepository;
-import ru.practicum.service.ClientService;
-import ru.practicum.subscription.model.Subscription;
-import ru.practicum.subscription.repository.SubscriptionRepository;
-import ru.practicum.user.model.User;
+import ru.practicum.stat.service.HitBuffer;
+import ru.practicum.subscription.service.FeedAssembler;
 import ru.practicum.user.service.UserService;
 
 import javax.servlet.http.HttpServletRequest;
@@ -32,6 +34,7 @@ import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.event.controller.EventController.PATTERN;
@@ -45,9 +48,9 @@ import static ru.practicum.event.controller.EventController.PATTERN;
 @Slf4j
 public class EventServiceImpl implements EventService {
     /**
-     * Предоставляет доступ к клиенту сервиса статистики.
+     * Предоставляет доступ к буферу статистики просмотров.
      */
-    private final ClientService statService;
+    private final HitBuffer hitBuffer;
     /**
      * Форматтер времени.
      */
@@ -73,9 +76,9 @@ public class EventServiceImpl implements EventService {
      */
     private final EventRepository eventRepository;
     /**
-     * Предоставляет доступ к репозиторию подписок.
+     * Предоставляет доступ к формированию новостных лент подписчиков.
      */
-    private final SubscriptionRepository subscriptionRepository;
+    private final FeedAssembler feedAssembler;
 
     /**
      * Сервисный метод регистрации и сохранения события.
@@ -189,7 +192,6 @@ public class EventServiceImpl implements EventService {
                     eventId));
         }
         saveStat(request);
-        event.setViews(getViews(event));
         return eventMapper.toEventFullDto(event);
     }
 
@@ -211,56 +213,12 @@ public class EventServiceImpl implements EventService {
                                          LocalDateTime rangeEnd, Boolean onlyAvailable, SortOption sort,
                                          int from, int size, HttpServletRequest request) {
         log.info("Поступил запрос на предоставление событий по параметрам.");
-        BooleanBuilder builder = new BooleanBuilder();
-        if (text != null && !text.isBlank()) {
-            BooleanExpression byAnnotation = QEvent.event.annotation.containsIgnoreCase(text);
-            BooleanExpression byDescription = QEvent.event.description.containsIgnoreCase(text);
-            builder.and(byAnnotation).or(byDescription);
-        }
-        if (categories != null) {
-            BooleanExpression byCategoryId = QEvent.event.category.id.in(categories);
-            builder.and(byCategoryId);
-        }
-        if (paid != null) {
-            BooleanExpression byPaid = QEvent.event.paid.eq(paid);
-            builder.and(byPaid);
-        }
-        if (rangeStart != null && rangeEnd != null) {
-            if (rangeEnd.isBefore(rangeStart)) {
-                throw new ValidationException("Конечное время не может быть раньше начального.");
-            } else {
-                BooleanExpression byDate = QEvent.event.eventDate.between(rangeStart, rangeEnd);
-                builder.and(byDate);
-            }
-        }
-        if (rangeStart != null && rangeEnd == null) {
-            BooleanExpression byDate = QEvent.event.eventDate.after(rangeStart);
-            builder.and(byDate);
-        }
-        if (rangeStart == null && rangeEnd != null) {
-            BooleanExpression byDate = QEvent.event.eventDate.before(rangeEnd);
-            builder.and(byDate);
-        }
-        if (onlyAvailable.equals(true)) {
-            BooleanExpression byLimitFree = QEvent.event.participantLimit.eq(0);
-            BooleanExpression byLimitConfirm = QEvent.event.confirmedRequests.lt(QEvent.event.participantLimit);
-            builder.and(byLimitFree).or(byLimitConfirm);
-        }
+        BooleanBuilder builder = eventsFilter(text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort);
         saveStat(request);
-        List<EventShortDto> events = eventRepository.findAll(builder,
-                        PageRequest.of(from, size, Sort.by(Sort.Direction.ASC, "eventDate")))
-                .getContent()
+        return eventRepository.findShortViews(builder, eventOrder(sort, text), (long) from * size, size)
                 .stream()
-                .peek(event -> event.setViews(getViews(event)))
                 .map(eventMapper::toEventShortDto)
                 .collect(Collectors.toList());
-        if (sort.equals(SortOption.VIEWS)) {
-            return events.stream()
-                    .sorted(Comparator.comparing(EventShortDto::getViews))
-                    .collect(Collectors.toList());
-        } else {
-            return events;
-        }
     }
 
     /**
@@ -278,46 +236,63 @@ public class EventServiceImpl implements EventService {
     public List<EventFullDto> getEventsByAdmin(Integer[] users, String[] states, Integer[] categories,
                                                LocalDateTime rangeStart, LocalDateTime rangeEnd, int from, int size) {
         log.info("Поступил запрос на предоставление событий администратору по параметрам.");
-        BooleanBuilder builder = new BooleanBuilder();
-        if (users != null) {
-            BooleanExpression byUserId = QEvent.event.initiator.id.in(users);
-            builder.and(byUserId);
-        }
-        if (states != null) {
-            BooleanExpression byStateId = QEvent.event.state.in(Arrays.stream(states)
-                    .map(State::valueOf)
-                    .collect(Collectors.toList()));
-            builder.and(byStateId);
-        }
-        if (categories != null) {
-            BooleanExpression byCategoryId = QEvent.event.category.id.in(categories);
-            builder.and(byCategoryId);
-        }
-        if (rangeStart != null && rangeEnd != null) {
-            if (rangeEnd.isBefore(rangeStart)) {
-                throw new ConflictException("Конечное время не может быть раньше начального.");
-            } else {
-                BooleanExpression byDate = QEvent.event.eventDate.between(rangeStart, rangeEnd);
-                builder.and(byDate);
-            }
-        }
-        if (rangeStart != null && rangeEnd == null) {
-            BooleanExpression byDate = QEvent.event.eventDate.after(rangeStart);
-            builder.and(byDate);
-        }
-        if (rangeStart == null && rangeEnd != null) {
-            BooleanExpression byDate = QEvent.event.eventDate.before(rangeEnd);
-            builder.and(byDate);
-        }
+        BooleanBuilder builder = adminEventsFilter(users, states, categories, rangeStart, rangeEnd);
         return eventRepository.findAll(builder, PageRequest.of(from, size,
                         Sort.by(Sort.Direction.ASC, "id")))
-                .getContent()
                 .stream()
-                .peek(event -> event.setViews(getViews(event)))
                 .map(eventMapper::toEventFullDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Сервисный метод предоставления событий по параметрам постранично по курсору.
+     * Общее количество событий не подсчитывается.
+     * @param cursor курсор, полученный с предыдущей страницей, или пустая строка для первой страницы.
+     * @param size количество событий в наборе.
+     * @return возвращает страницу событий в формате {@link EventSliceDto}.
+     */
+    @Override
+    public EventSliceDto<EventShortDto> getEventsByCursor(String text, Integer[] categories, Boolean paid,
+                                                          LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                          Boolean onlyAvailable, SortOption sort, String cursor,
+                                                          int size, HttpServletRequest request) {
+        log.info("Поступил запрос на предоставление событий по параметрам по курсору.");
+        if (SortOption.RELEVANCE.equals(sort)) {
+            throw new ValidationException("Сортировка по релевантности недоступна при предоставлении по курсору.");
+        }
+        BooleanBuilder builder = eventsFilter(text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort);
+        EventCursor eventCursor = EventCursor.decode(cursor,
+                SortOption.VIEWS.equals(sort) ? EventCursor.Key.VIEWS : EventCursor.Key.EVENT_DATE);
+        saveStat(request);
+        List<EventShortView> views = eventRepository.findShortViews(builder.and(eventCursor.after()),
+                eventCursor.order(), 0, sliceSize(size) + 1);
+        boolean hasNext = views.size() > size;
+        List<EventShortView> content = hasNext ? views.subList(0, size) : views;
+        EventShortView last = hasNext ? content.get(size - 1) : null;
+        return new EventSliceDto<>(content.stream()
+                .map(eventMapper::toEventShortDto)
+                .collect(Collectors.toList()), hasNext, last == null ? null
+                : eventCursor.next(last.getEventDate(), last.getViews(), last.getId()).encode());
+    }
+
+    /**
+     * Сервисный метод предоставления событий администратору по параметрам постранично по курсору.
+     * События упорядочены по уникальному идентификатору, общее количество событий не подсчитывается.
+     * @param cursor курсор, полученный с предыдущей страницей, или пустая строка для первой страницы.
+     * @param size количество событий в наборе.
+     * @return возвращает страницу событий в формате {@link EventSliceDto}.
+     */
+    @Override
+    public EventSliceDto<EventFullDto> getEventsByAdminByCursor(Integer[] users, String[] states,
+                                                                Integer[] categories, LocalDateTime rangeStart,
+                                                                LocalDateTime rangeEnd, String cursor, int size) {
+        log.info("Поступил запрос на предоставление событий администратору по параметрам по курсору.");
+        BooleanBuilder builder = adminEventsFilter(users, states, categories, rangeStart, rangeEnd);
+        EventCursor eventCursor = EventCursor.decode(cursor, EventCursor.Key.ID);
+        return toSliceDto(eventRepository.findAllAfter(builder, eventCursor, sliceSize(size)), eventCursor,
+                eventMapper::toEventFullDto);
+    }
+
     /**
      * Сервисный метод обновления данных события администратором.
      * @param eventId уникальный идентификатор события.
@@ -343,6 +318,7 @@ public class EventServiceImpl implements EventService {
         Event updatedEvent = eventUpdater(event, eventMapper.toUpdateEventUserRequest(request));
         if (request.getStateAction() == null || request.getStateAction().equals(State.PUBLISH_EVENT.toString())) {
             updatedEvent.setState(State.PUBLISHED);
+            feedAssembler.onPublish(eventId, updatedEvent.getInitiator().getId(), updatedEvent.getEventDate());
         } else if (request.getStateAction().equals(State.REJECT_EVENT.toString())) {
             updatedEvent.setState(State.CANCELED);
         } else {
@@ -391,6 +367,8 @@ public class EventServiceImpl implements EventService {
 
     /**
      * Сервисный метод предоставления пользователю ленты событий на основе его подписок по параметрам.
+     * Лента хранится заранее и пополняется при публикации событий, события организаторов с большим
+     * количеством подписчиков объединяются с ней при чтении, см. {@link FeedAssembler}.
      * @param subscriberId уникальный идентификатор пользователя-подписчика.
      * @param sort Вариант сортировки: по дате события или по количеству просмотров.
      * @param onlyAvailable только события у которых не исчерпан лимит запросов на участие.
@@ -401,38 +379,18 @@ public class EventServiceImpl implements EventService {
     @Override
     public List<EventShortDto> getFeed(int subscriberId, Boolean onlyAvailable, SortOption sort, int from, int size) {
         log.info("Поступил запрос от пользователя с id: {} на предоставление новостной ленты.", subscriberId);
-        User user = userService.findById(subscriberId);
-        List<User> initiators = subscriptionRepository.findAllBySubscriber(user,
-                        PageRequest.of(0, 10))
-                .stream()
-                .map(Subscription::getUser)
-                .collect(Collectors.toList());
-        BooleanBuilder builder = new BooleanBuilder();
-        if (!initiators.isEmpty()) {
-            BooleanExpression byInitiator = QEvent.event.initiator.in(initiators);
-            builder.and(byInitiator);
-        } else {
-            return new ArrayList<>();
+        if (SortOption.RELEVANCE.equals(sort)) {
+            throw new ValidationException("Сортировка по релевантности недоступна для новостной ленты.");
         }
-        if (onlyAvailable.equals(true)) {
-            BooleanExpression byLimitFree = QEvent.event.participantLimit.eq(0);
-            BooleanExpression byLimitConfirm = QEvent.event.confirmedRequests.lt(QEvent.event.participantLimit);
-            builder.and(byLimitFree).or(byLimitConfirm);
+        userService.findById(subscriberId);
+        List<Integer> ids = feedAssembler.getFeedEventIds(subscriberId, onlyAvailable, sort, (long) from * size, size);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
         }
-        List<EventShortDto> feed = eventRepository.findAll(builder,
-                        PageRequest.of(from, size, Sort.by(Sort.Direction.ASC, "eventDate")))
-                .getContent()
+        return eventRepository.findShortViews(QEvent.event.id.in(ids), eventOrder(sort, null), 0, ids.size())
                 .stream()
-                .peek(event -> event.setViews(getViews(event)))
                 .map(eventMapper::toEventShortDto)
                 .collect(Collectors.toList());
-        if (sort.equals(SortOption.VIEWS)) {
-            return feed.stream()
-                    .sorted(Comparator.comparing(EventShortDto::getViews))
-                    .collect(Collectors.toList());
-        } else {
-            return feed;
-        }
     }
 
     /**
@@ -501,34 +459,158 @@ public class EventServiceImpl implements EventService {
         }
     }
 
+    /**
+     * Вспомогательный метод формирования условий публичного поиска событий.
+     * Предоставляются только опубликованные события.
+     * При сортировке по релевантности текст ищется полнотекстовым поиском, иначе — по вхождению подстроки.
+     * Генерирует {@link ValidationException} если конечное время раньше начального
+     * или если для сортировки по релевантности не указан текст.
+     * @return возвращает условия поиска в формате {@link BooleanBuilder}.
+     */
+    private BooleanBuilder eventsFilter(String text, Integer[] categories, Boolean paid, LocalDateTime rangeStart,
+                                        LocalDateTime rangeEnd, Boolean onlyAvailable, SortOption sort) {
+        BooleanBuilder builder = new BooleanBuilder(QEvent.event.state.eq(State.PUBLISHED));
+        if (SortOption.RELEVANCE.equals(sort)) {
+            if (text == null || text.isBlank()) {
+                throw new ValidationException("Для сортировки по релевантности необходимо указать текст для поиска.");
+            }
+            builder.and(EventTextSearch.matches(text));
+        } else if (text != null && !text.isBlank()) {
+            BooleanExpression byAnnotation = QEvent.event.annotation.containsIgnoreCase(text);
+            BooleanExpression byDescription = QEvent.event.description.containsIgnoreCase(text);
+            builder.and(byAnnotation.or(byDescription));
+        }
+        if (categories != null) {
+            BooleanExpression byCategoryId = QEvent.event.category.id.in(categories);
+            builder.and(byCategoryId);
+        }
+        if (paid != null) {
+            BooleanExpression byPaid = QEvent.event.paid.eq(paid);
+            builder.and(byPaid);
+        }
+        if (rangeStart != null && rangeEnd != null) {
+            if (rangeEnd.isBefore(rangeStart)) {
+                throw new ValidationException("Конечное время не может быть раньше начального.");
+            } else {
+                BooleanExpression byDate = QEvent.event.eventDate.between(rangeStart, rangeEnd);
+                builder.and(byDate);
+            }
+        }
+        if (rangeStart != null && rangeEnd == null) {
+            BooleanExpression byDate = QEvent.event.eventDate.after(rangeStart);
+            builder.and(byDate);
+        }
+        if (rangeStart == null && rangeEnd != null) {
+            BooleanExpression byDate = QEvent.event.eventDate.before(rangeEnd);
+            builder.and(byDate);
+        }
+        if (onlyAvailable.equals(true)) {
+            BooleanExpression byLimitFree = QEvent.event.participantLimit.eq(0);
+            BooleanExpression byLimitConfirm = QEvent.event.confirmedRequests.lt(QEvent.event.participantLimit);
+            builder.and(byLimitFree.or(byLimitConfirm));
+        }
+        return builder;
+    }
+
+    /**
+     * Вспомогательный метод формирования условий поиска событий администратором.
+     * Генерирует {@link ConflictException} если конечное время раньше начального.
+     * @return возвращает условия поиска в формате {@link BooleanBuilder}.
+     */
+    private BooleanBuilder adminEventsFilter(Integer[] users, String[] states, Integer[] categories,
+                                             LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        BooleanBuilder builder = new BooleanBuilder();
+        if (users != null) {
+            BooleanExpression byUserId = QEvent.event.initiator.id.in(users);
+            builder.and(byUserId);
+        }
+        if (states != null) {
+            BooleanExpression byStateId = QEvent.event.state.in(Arrays.stream(states)
+                    .map(State::valueOf)
+                    .collect(Collectors.toList()));
+            builder.and(byStateId);
+        }
+        if (categories != null) {
+            BooleanExpression byCategoryId = QEvent.event.category.id.in(categories);
+            builder.and(byCategoryId);
+        }
+        if (rangeStart != null && rangeEnd != null) {
+            if (rangeEnd.isBefore(rangeStart)) {
+                throw new ConflictException("Конечное время не может быть раньше начального.");
+            } else {
+                BooleanExpression byDate = QEvent.event.eventDate.between(rangeStart, rangeEnd);
+                builder.and(byDate);
+            }
+        }
+        if (rangeStart != null && rangeEnd == null) {
+            BooleanExpression byDate = QEvent.event.eventDate.after(rangeStart);
+            builder.and(byDate);
+        }
+        if (rangeStart == null && rangeEnd != null) {
+            BooleanExpression byDate = QEvent.event.eventDate.before(rangeEnd);
+            builder.and(byDate);
+        }
+        return builder;
+    }
+
+    /**
+     * Вспомогательный метод проверки размера страницы, предоставляемой по курсору.
+     * Генерирует {@link ValidationException} если размер меньше единицы.
+     */
+    private int sliceSize(int size) {
+        if (size < 1) {
+            throw new ValidationException("Количество событий в наборе должно быть положительным.");
+        }
+        return size;
+    }
+
+    /**
+     * Вспомогательный метод преобразования страницы событий в формат DTO с курсором следующей страницы.
+     * @param slice страница событий.
+     * @param cursor курсор текущей страницы.
+     * @param mapper преобразование события в формат DTO.
+     * @return возвращает страницу событий в формате {@link EventSliceDto}.
+     */
+    private <T> EventSliceDto<T> toSliceDto(Slice<Event> slice, EventCursor cursor, Function<Event, T> mapper) {
+        List<Event> events = slice.getContent();
+        Event last = events.isEmpty() ? null : events.get(events.size() - 1);
+        String nextCursor = slice.hasNext() && last != null
+                ? cursor.next(last.getEventDate(), last.getViews(), last.getId()).encode() : null;
+        return new EventSliceDto<>(events.stream()
+                .map(mapper)
+                .collect(Collectors.toList()), slice.hasNext(), nextCursor);
+    }
+
+    /**
+     * Вспомогательный метод формирования порядка сортировки публичного списка событий.
+     * При равенстве основного ключа события упорядочиваются по уникальному идентификатору.
+     * @param sort вариант сортировки: по дате события, по количеству просмотров или по релевантности.
+     * @param text текст поискового запроса для сортировки по релевантности.
+     * @return возвращает порядок сортировки.
+     */
+    private OrderSpecifier<?>[] eventOrder(SortOption sort, String text) {
+        QEvent event = QEvent.event;
+        if (SortOption.VIEWS.equals(sort)) {
+            return new OrderSpecifier<?>[]{event.views.desc(), event.id.asc()};
+        }
+        if (SortOption.RELEVANCE.equals(sort)) {
+            return new OrderSpecifier<?>[]{EventTextSearch.rank(text).desc(), event.id.asc()};
+        }
+        return new OrderSpecifier<?>[]{event.eventDate.asc(), event.id.asc()};
+    }
+
     /**
      * Вспомогательный метод сохранения статистики запросов.
+     * Данные передаются в сервис статистики в фоновом режиме через {@link HitBuffer}.
      * @param request запрос с данными пользователя.
      */
     private void saveStat(HttpServletRequest request) {
         log.info("Производится сохранение статистики.");
-        statService.add(StatDto.builder()
+        hitBuffer.add(StatDto.builder()
                 .app("main-service")
                 .uri(request.getRequestURI())
                 .ip(request.getRemoteAddr())
                 .timestamp(LocalDateTime.now().format(formatter))
                 .build());
     }
-
-    /**
-     * Вспомогательный метод предоставления количества просмотров.
-     * @param event событие в формате {@link Event}
-     * @return возвращает количество просмотров данного события.
-     */
-    private int getViews(Event event) {
-        log.info("Производится предоставление количества просмотров события.");
-            List<StatResponseDto> response = statService.get(LocalDateTime.now().minusYears(1),
-                    LocalDateTime.now().plusDays(1), new String[]{"/events/" + event.getId()}, true);
-            if (!response.isEmpty()) {
-                String[] strings = String.valueOf(response.get(0)).split("=");
-                return Integer.parseInt(strings[strings.length - 1].split("}")[0]);
-            } else {
-                return 0;
-            }
-    }
-}
\ No newline at end of file
+}
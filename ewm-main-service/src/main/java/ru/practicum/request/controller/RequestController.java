@@ -2,13 +2,16 @@ package ru.practicum.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.request.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.request.dto.EventRequestStatusUpdateResult;
 import ru.practicum.request.dto.ParticipationRequestDto;
 import ru.practicum.request.service.RequestService;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -42,6 +45,17 @@ public class RequestController {
         return requestService.get(userId);
     }
 
+    /**
+     * Обрабатывает запросы постраничного предоставления списка заявок.
+     */
+    @GetMapping(value = "/requests", params = "size")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ParticipationRequestDto> get(@PathVariable int userId,
+                                             @RequestParam(defaultValue = "0") int afterId,
+                                             @RequestParam int size) {
+        return requestService.get(userId, afterId, size);
+    }
+
     /**
      * Обрабатывает запросы на отмену заявок.
      */
@@ -62,6 +76,30 @@ public class RequestController {
         return requestService.getByInitiator(userId, eventId);
     }
 
+    /**
+     * Обрабатывает запросы на постраничное предоставление списка заявок для организатора.
+     */
+    @GetMapping(value = "/events/{eventId}/requests", params = "size")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ParticipationRequestDto> getByInitiator(@PathVariable int userId,
+                                                        @PathVariable int eventId,
+                                                        @RequestParam(defaultValue = "0") int afterId,
+                                                        @RequestParam int size) {
+        return requestService.getByInitiator(userId, eventId, afterId, size);
+    }
+
+    /**
+     * Обрабатывает запросы на потоковую выгрузку заявок для организатора в формате NDJSON.
+     */
+    @GetMapping(value = "/events/{eventId}/requests/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public void exportByInitiator(@PathVariable int userId,
+                                  @PathVariable int eventId,
+                                  HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        requestService.exportByInitiator(userId, eventId, response.getOutputStream());
+    }
+
     /**
      * Обрабатывает запросы на пре-модерацию статуса заявок на участие в событии.
      */
@@ -4,6 +4,7 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.practicum.request.dto.ParticipationRequestDto;
 import ru.practicum.request.model.ParticipationRequest;
+import ru.practicum.request.model.ParticipationRequestView;
 
 import static ru.practicum.event.controller.EventController.PATTERN;
 
@@ -27,4 +28,12 @@ public interface RequestMapper {
     @Mapping(target = "requester", source = "request.requester.id")
     @Mapping(target = "created", dateFormat = PATTERN)
     ParticipationRequestDto toParticipationRequestDto(ParticipationRequest request);
+
+    /**
+     * Конвертирует {@link ParticipationRequestView} в {@link ParticipationRequestDto}.
+     */
+    @Mapping(target = "event", source = "eventId")
+    @Mapping(target = "requester", source = "requesterId")
+    @Mapping(target = "created", dateFormat = PATTERN)
+    ParticipationRequestDto toParticipationRequestDto(ParticipationRequestView view);
 }
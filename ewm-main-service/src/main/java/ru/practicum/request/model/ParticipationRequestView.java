@@ -0,0 +1,36 @@
+package ru.practicum.request.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.assistant.State;
+
+import java.time.LocalDateTime;
+
+/**
+ * Заявка на участие в событии, выбираемая из базы данных только в объеме, необходимом для ее представления.
+ * Не является сущностью и не отслеживается контекстом постоянства.
+ */
+@Getter
+@AllArgsConstructor
+public class ParticipationRequestView {
+    /**
+     * Уникальный идентификатор заявки.
+     */
+    private final int id;
+    /**
+     * Дата и время создания заявки.
+     */
+    private final LocalDateTime created;
+    /**
+     * Уникальный идентификатор события.
+     */
+    private final int eventId;
+    /**
+     * Уникальный идентификатор пользователя, отправившего заявку.
+     */
+    private final int requesterId;
+    /**
+     * Статус заявки.
+     */
+    private final State status;
+}
@@ -0,0 +1,29 @@
+package ru.practicum.request.repository;
+
+import ru.practicum.assistant.State;
+import ru.practicum.request.model.ParticipationRequestView;
+
+import java.util.List;
+
+/**
+ * Репозиторий модерации заявок на участие в событии.
+ */
+public interface RequestModerationRepository {
+    /**
+     * Обновляет статус заявок на участие в событии одним запросом.
+     * Заявки другого события и уже одобренные заявки не изменяются.
+     * @param eventId уникальный идентификатор события.
+     * @param ids список уникальных идентификаторов заявок.
+     * @param status новый статус заявок.
+     * @return возвращает обновленные заявки в порядке возрастания уникальных идентификаторов.
+     */
+    List<ParticipationRequestView> updateStatus(int eventId, List<Integer> ids, State status);
+
+    /**
+     * Отклоняет все ожидающие рассмотрения заявки на участие в событии одним запросом,
+     * если максимальное количество участников события достигнуто.
+     * @param eventId уникальный идентификатор события.
+     * @return возвращает отклоненные заявки в порядке возрастания уникальных идентификаторов.
+     */
+    List<ParticipationRequestView> rejectPendingIfFull(int eventId);
+}
@@ -0,0 +1,65 @@
+package ru.practicum.request.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.assistant.State;
+import ru.practicum.request.model.ParticipationRequestView;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static ru.practicum.request.repository.RequestViewRepositoryImpl.ROW_MAPPER;
+
+/**
+ * Реализация репозитория модерации заявок на участие в событии.
+ * Статусы заявок обновляются одним запросом, обновленные строки возвращаются тем же запросом.
+ */
+@RequiredArgsConstructor
+public class RequestModerationRepositoryImpl implements RequestModerationRepository {
+    /**
+     * Возвращаемые поля обновленных заявок.
+     */
+    private static final String RETURNING = " RETURNING " + RequestViewRepositoryImpl.COLUMNS;
+    /**
+     * Запрос на обновление статуса заявок.
+     */
+    private static final String UPDATE_STATUS = "UPDATE requests r SET state = :state " +
+            "WHERE r.id IN (:ids) AND r.event_id = :eventId AND r.state <> 'CONFIRMED'" + RETURNING;
+    /**
+     * Запрос на отклонение ожидающих рассмотрения заявок события с достигнутым ограничением участников.
+     */
+    private static final String REJECT_PENDING = "UPDATE requests r SET state = 'REJECTED' FROM events e " +
+            "WHERE e.id = :eventId AND r.event_id = e.id AND r.state = 'PENDING' " +
+            "AND e.participant_limit <> 0 AND e.confirmed_requests >= e.participant_limit" + RETURNING;
+    /**
+     * Предоставляет доступ к JDBC.
+     */
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ParticipationRequestView> updateStatus(int eventId, List<Integer> ids, State status) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return sorted(jdbcTemplate.query(UPDATE_STATUS, new MapSqlParameterSource()
+                .addValue("state", status.name())
+                .addValue("ids", ids)
+                .addValue("eventId", eventId), ROW_MAPPER));
+    }
+
+    @Override
+    public List<ParticipationRequestView> rejectPendingIfFull(int eventId) {
+        return sorted(jdbcTemplate.query(REJECT_PENDING, new MapSqlParameterSource("eventId", eventId), ROW_MAPPER));
+    }
+
+    /**
+     * Вспомогательный метод упорядочивания заявок по уникальному идентификатору.
+     */
+    private List<ParticipationRequestView> sorted(List<ParticipationRequestView> requests) {
+        return requests.stream()
+                .sorted(Comparator.comparingInt(ParticipationRequestView::getId))
+                .collect(Collectors.toList());
+    }
+}
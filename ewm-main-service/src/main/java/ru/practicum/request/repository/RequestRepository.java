@@ -2,6 +2,8 @@ package ru.practicum.request.repository;
 
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.assistant.State;
 import ru.practicum.event.model.Event;
 import ru.practicum.request.model.ParticipationRequest;
@@ -12,29 +14,31 @@ import java.util.List;
 /**
  * Репозиторий данных заявок.
  */
-public interface RequestRepository extends JpaRepository<ParticipationRequest, Integer> {
+public interface RequestRepository extends JpaRepository<ParticipationRequest, Integer>, RequestModerationRepository,
+        RequestViewRepository {
     /**
      * Проверяет наличие заявки в базе.
      */
     boolean existsByEventAndRequester(Event event, User requester);
 
-    /**
-     * Осуществляет поиск и предоставление списка заявок пользователя.
-     */
-    List<ParticipationRequest> findAllByRequester(User requester, Sort sort);
-
     /**
      * Осуществляет поиск и предоставление списка заявок на участие в событии.
      */
     List<ParticipationRequest> findAllByEvent(Event event,Sort sort);
 
     /**
-     * Осуществляет поиск и предоставление списка заявок на участие в событии по списку уникальных идентификаторов.
+     * Проверяет наличие среди заявок события заявок с определенным статусом.
      */
-    List<ParticipationRequest> findAllByIdIn(List<Integer> ids, Sort sort);
+    boolean existsByIdInAndEventIdAndStatus(List<Integer> ids, int eventId, State status);
 
     /**
      * Предоставляет количество заявок на участие в событии с определенным статусом.
      */
-    int countByEventAndStatus(Event event, State status);
+    int countByEventIdAndStatus(int eventId, State status);
+
+    /**
+     * Предоставляет текущий статус заявки из базы, минуя контекст постоянства.
+     */
+    @Query("SELECT r.status FROM ParticipationRequest r WHERE r.id = :id")
+    State findStatusById(@Param("id") int id);
 }
@@ -0,0 +1,44 @@
+package ru.practicum.request.repository;
+
+import ru.practicum.request.model.ParticipationRequestView;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Репозиторий заявок на участие в событии, выбираемых без загрузки сущностей.
+ */
+public interface RequestViewRepository {
+    /**
+     * Предоставляет все заявки пользователя в порядке возрастания уникальных идентификаторов.
+     * @param requesterId уникальный идентификатор пользователя.
+     */
+    List<ParticipationRequestView> findViewsByRequester(int requesterId);
+
+    /**
+     * Предоставляет заявки пользователя, следующие за указанной заявкой,
+     * в порядке возрастания уникальных идентификаторов.
+     * @param requesterId уникальный идентификатор пользователя.
+     * @param afterId уникальный идентификатор последней полученной заявки.
+     * @param limit максимальное количество заявок.
+     */
+    List<ParticipationRequestView> findViewsByRequester(int requesterId, int afterId, int limit);
+
+    /**
+     * Предоставляет заявки на участие в событии, следующие за указанной заявкой,
+     * в порядке возрастания уникальных идентификаторов.
+     * @param eventId уникальный идентификатор события.
+     * @param afterId уникальный идентификатор последней полученной заявки.
+     * @param limit максимальное количество заявок.
+     */
+    List<ParticipationRequestView> findViewsByEvent(int eventId, int afterId, int limit);
+
+    /**
+     * Последовательно передает все заявки на участие в событии в порядке возрастания уникальных идентификаторов.
+     * Заявки читаются курсором базы данных порциями, поэтому расход памяти не зависит от их количества.
+     * @param eventId уникальный идентификатор события.
+     * @param fetchSize количество заявок, читаемых из базы данных за одно обращение.
+     * @param consumer получатель заявок.
+     */
+    void streamViewsByEvent(int eventId, int fetchSize, Consumer<ParticipationRequestView> consumer);
+}
@@ -0,0 +1,88 @@
+package ru.practicum.request.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.assistant.State;
+import ru.practicum.request.model.ParticipationRequestView;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Реализация репозитория заявок на участие в событии, выбираемых без загрузки сущностей.
+ */
+@RequiredArgsConstructor
+public class RequestViewRepositoryImpl implements RequestViewRepository {
+    /**
+     * Выбираемые поля заявки.
+     */
+    static final String COLUMNS = "r.id, r.created, r.event_id, r.user_id, r.state";
+    /**
+     * Преобразование строки результата в заявку.
+     */
+    static final RowMapper<ParticipationRequestView> ROW_MAPPER = (resultSet, rowNum) ->
+            new ParticipationRequestView(resultSet.getInt("id"),
+                    resultSet.getTimestamp("created").toLocalDateTime(),
+                    resultSet.getInt("event_id"),
+                    resultSet.getInt("user_id"),
+                    State.valueOf(resultSet.getString("state")));
+    /**
+     * Запрос всех заявок пользователя.
+     */
+    private static final String BY_REQUESTER = "SELECT " + COLUMNS + " FROM requests r " +
+            "WHERE r.user_id = ? ORDER BY r.id";
+    /**
+     * Запрос страницы заявок пользователя.
+     */
+    private static final String BY_REQUESTER_AFTER = "SELECT " + COLUMNS + " FROM requests r " +
+            "WHERE r.user_id = ? AND r.id > ? ORDER BY r.id LIMIT ?";
+    /**
+     * Запрос страницы заявок на участие в событии.
+     */
+    private static final String BY_EVENT_AFTER = "SELECT " + COLUMNS + " FROM requests r " +
+            "WHERE r.event_id = ? AND r.id > ? ORDER BY r.id LIMIT ?";
+    /**
+     * Запрос всех заявок на участие в событии.
+     */
+    private static final String BY_EVENT = "SELECT " + COLUMNS + " FROM requests r " +
+            "WHERE r.event_id = ? ORDER BY r.id";
+    /**
+     * Предоставляет доступ к JDBC.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ParticipationRequestView> findViewsByRequester(int requesterId) {
+        return jdbcTemplate.query(BY_REQUESTER, ROW_MAPPER, requesterId);
+    }
+
+    @Override
+    public List<ParticipationRequestView> findViewsByRequester(int requesterId, int afterId, int limit) {
+        return jdbcTemplate.query(BY_REQUESTER_AFTER, ROW_MAPPER, requesterId, afterId, limit);
+    }
+
+    @Override
+    public List<ParticipationRequestView> findViewsByEvent(int eventId, int afterId, int limit) {
+        return jdbcTemplate.query(BY_EVENT_AFTER, ROW_MAPPER, eventId, afterId, limit);
+    }
+
+    /**
+     * Курсор базы данных читает заявки порциями только внутри транзакции,
+     * вне ее драйвер загружает весь результат сразу.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamViewsByEvent(int eventId, int fetchSize, Consumer<ParticipationRequestView> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(BY_EVENT);
+            statement.setFetchSize(fetchSize);
+            statement.setInt(1, eventId);
+            return statement;
+        }, resultSet -> {
+            consumer.accept(ROW_MAPPER.mapRow(resultSet, resultSet.getRow()));
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.request.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.assistant.State;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.request.repository.RequestRepository;
+
+/**
+ * Сверка количества одобренных заявок на участие в событиях.
+ * Количество одобренных заявок хранится в таблице событий и изменяется на величину изменения при каждой
+ * операции с заявками. Сверка периодически пересчитывает его по заявкам и исправляет расхождения.
+ * Каждое событие исправляется в отдельной транзакции под блокировкой строки события: операции с заявками
+ * изменяют количество в той же транзакции, что и заявки, поэтому после получения блокировки подсчет видит
+ * все заявки, учтенные в сохраненном количестве, и исправление не затирает их.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConfirmedRequestsReconciler {
+    /**
+     * Предоставляет доступ к репозиторию событий.
+     */
+    private final EventRepository eventRepository;
+    /**
+     * Предоставляет доступ к репозиторию заявок.
+     */
+    private final RequestRepository requestRepository;
+    /**
+     * Предоставляет транзакции исправления отдельных событий.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Пересчитывает количество одобренных заявок и исправляет расходящиеся значения.
+     */
+    @Scheduled(cron = "${requests.reconciliation.cron:0 0 * * * *}")
+    public void reconcile() {
+        int fixed = 0;
+        for (int eventId : eventRepository.findConfirmedRequestsMismatches()) {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> reconcile(eventId)))) {
+                fixed++;
+            }
+        }
+        if (fixed != 0) {
+            log.warn("Исправлено количество одобренных заявок для событий: {}.", fixed);
+        }
+    }
+
+    /**
+     * Вспомогательный метод исправления количества одобренных заявок события под блокировкой.
+     * @param eventId уникальный идентификатор события.
+     * @return возвращает true если количество было исправлено.
+     */
+    private boolean reconcile(int eventId) {
+        Integer stored = eventRepository.lockConfirmedRequests(eventId);
+        if (stored == null) {
+            return false;
+        }
+        int confirmed = requestRepository.countByEventIdAndStatus(eventId, State.CONFIRMED);
+        if (stored == confirmed) {
+            return false;
+        }
+        eventRepository.setConfirmedRequests(eventId, confirmed);
+        return true;
+    }
+}
@@ -5,6 +5,8 @@ import ru.practicum.request.dto.EventRequestStatusUpdateResult;
 import ru.practicum.request.dto.ParticipationRequestDto;
 import ru.practicum.request.model.ParticipationRequest;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -15,10 +17,16 @@ public interface RequestService {
 
     List<ParticipationRequestDto> get(int userId);
 
+    List<ParticipationRequestDto> get(int userId, int afterId, int size);
+
     ParticipationRequestDto cancel(int userId, int requestId);
 
     List<ParticipationRequestDto> getByInitiator(int userId, int eventId);
 
+    List<ParticipationRequestDto> getByInitiator(int userId, int eventId, int afterId, int size);
+
+    void exportByInitiator(int userId, int eventId, OutputStream outputStream) throws IOException;
+
     ParticipationRequest findById(int requestId);
 
     EventRequestStatusUpdateResult moderation(int userId,
@@ -1,7 +1,13 @@
 package ru.practicum.request.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.assistant.State;
@@ -21,6 +27,9 @@ import ru.practicum.user.model.User;
 import ru.practicum.user.service.UserService;
 
 import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -32,6 +41,10 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class RequestServiceImpl implements RequestService {
+    /**
+     * Разделитель записей при выгрузке в формате NDJSON.
+     */
+    private static final char RECORD_SEPARATOR = '\n';
     /**
      * Предоставляет доступ к репозиторию заявок.
      */
@@ -52,11 +65,27 @@ public class RequestServiceImpl implements RequestService {
      * Предоставляет доступ к мапперу.
      */
     private final RequestMapper requestMapper;
+    /**
+     * Предоставляет доступ к сериализатору для потоковой выгрузки заявок.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * Признак отклонения ожидающих рассмотрения заявок при достижении максимального количества участников.
+     */
+    @Value("${requests.moderation.reject-pending-on-limit:true}")
+    private boolean rejectPendingOnLimit;
+    /**
+     * Количество заявок, читаемых из базы данных за одно обращение при потоковой выгрузке.
+     */
+    @Value("${requests.export.fetch-size:500}")
+    private int exportFetchSize;
 
     /**
      * Сервисный метод регистрации и сохранения заявки на участие в событии.
      * Генерирует {@link ConflictException} если событие еще не опубликовано или повторная отправка заявки
      * или заявку отправляет организатор или все билеты уже были реализованы.
+     * Место для одобряемой заявки резервируется атомарно, поэтому одновременные заявки не превышают
+     * максимальное количество участников.
      * @param userId уникальный идентификатор пользователя.
      * @param eventId уникальный идентификатор события.
      * @return возвращает зарегистрированную заявку в формате {@link ParticipationRequestDto}.
@@ -77,25 +106,29 @@ public class RequestServiceImpl implements RequestService {
         if (requester.equals(event.getInitiator())) {
             throw new ConflictException("Организатор не может участвовать в событии.");
         }
-        if (!event.getRequestModeration()
-                && event.getParticipantLimit() != 0
-                && event.getParticipantLimit() == event.getConfirmedRequests()) {
+        State status = !event.getRequestModeration() || event.getParticipantLimit() == 0
+                ? State.CONFIRMED : State.PENDING;
+        if (status.equals(State.CONFIRMED) && eventRepository.reserveConfirmedRequests(eventId, 1) == 0) {
             throw new ConflictException("Sold out");
         }
-        ParticipationRequest request = requestRepository.save(ParticipationRequest
-                .builder()
-                .created(LocalDateTime.now())
-                .event(event)
-                .requester(requester)
-                .status(!event.getRequestModeration() || event.getParticipantLimit() == 0
-                        ? State.CONFIRMED : State.PENDING)
-                .build());
-        eventConfirmedRequestsUpdater(event);
+        ParticipationRequest request;
+        try {
+            request = requestRepository.save(ParticipationRequest
+                    .builder()
+                    .created(LocalDateTime.now())
+                    .event(event)
+                    .requester(requester)
+                    .status(status)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Заявка уже была отправлена.");
+        }
         return requestMapper.toParticipationRequestDto(request);
     }
 
     /**
      * Сервисный метод предоставления списка заявок пользователя.
+     * Заявки выбираются без загрузки сущностей событий и пользователей.
      * @param userId уникальный идентификатор пользователя.
      * @return возвращает список заявок в формате {@link ParticipationRequestDto}.
      */
@@ -103,7 +136,25 @@ public class RequestServiceImpl implements RequestService {
     public List<ParticipationRequestDto> get(int userId) {
         log.info("Поступил запрос на предоставление списка заявок пользователя с id: {}.", userId);
         return requestRepository
-                .findAllByRequester(userService.findById(userId), Sort.by(Sort.Direction.ASC, "id"))
+                .findViewsByRequester(userService.findById(userId).getId())
+                .stream()
+                .map(requestMapper::toParticipationRequestDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Сервисный метод постраничного предоставления списка заявок пользователя.
+     * Заявки выбираются без загрузки сущностей, страница определяется последней полученной заявкой.
+     * @param userId уникальный идентификатор пользователя.
+     * @param afterId уникальный идентификатор последней полученной заявки.
+     * @param size количество заявок на странице.
+     * @return возвращает список заявок в формате {@link ParticipationRequestDto}.
+     */
+    @Override
+    public List<ParticipationRequestDto> get(int userId, int afterId, int size) {
+        log.info("Поступил запрос на предоставление страницы заявок пользователя с id: {}.", userId);
+        return requestRepository
+                .findViewsByRequester(userService.findById(userId).getId(), afterId, size)
                 .stream()
                 .map(requestMapper::toParticipationRequestDto)
                 .collect(Collectors.toList());
@@ -111,6 +162,8 @@ public class RequestServiceImpl implements RequestService {
 
     /**
      * Сервисный метод отмены заявки на участие в событии.
+     * Событие блокируется до чтения статуса заявки, как и при подаче и одобрении заявок, поэтому количество
+     * одобренных заявок уменьшается только один раз даже при параллельной отмене или одобрении.
      * @param userId уникальный идентификатор автора.
      * @param requestId уникальный идентификатор заявки.
      * @return возвращает отмененную заявку в формате {@link ParticipationRequestDto}.
@@ -121,8 +174,12 @@ public class RequestServiceImpl implements RequestService {
         log.info("Поступил запрос пользователя с id: {} на отмену заявки участия в событии.", userId);
         ParticipationRequest request = findById(requestId);
         authorChecker(request, userId);
+        int eventId = request.getEvent().getId();
+        eventRepository.lockConfirmedRequests(eventId);
+        if (State.CONFIRMED.equals(requestRepository.findStatusById(requestId))) {
+            eventRepository.addConfirmedRequests(eventId, -1);
+        }
         request.setStatus(State.CANCELED);
-        eventConfirmedRequestsUpdater(request.getEvent());
         return requestMapper.toParticipationRequestDto(request);
     }
 
@@ -144,8 +201,63 @@ public class RequestServiceImpl implements RequestService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Сервисный метод постраничного предоставления списка заявок для участия в событии.
+     * Заявки выбираются без загрузки сущностей, страница определяется последней полученной заявкой.
+     * @param userId уникальный идентификатор организатора.
+     * @param eventId уникальный идентификатор события.
+     * @param afterId уникальный идентификатор последней полученной заявки.
+     * @param size количество заявок на странице.
+     * @return возвращает список заявок в формате {@link ParticipationRequestDto}.
+     */
+    @Override
+    public List<ParticipationRequestDto> getByInitiator(int userId, int eventId, int afterId, int size) {
+        log.info("Поступил запрос на предоставление страницы заявок на участие для организатора c id: {}.", userId);
+        Event event = eventService.findById(eventId);
+        eventService.ownershipChecker(event, userId);
+        return requestRepository.findViewsByEvent(eventId, afterId, size)
+                .stream()
+                .map(requestMapper::toParticipationRequestDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Сервисный метод потоковой выгрузки заявок для участия в событии в формате NDJSON.
+     * Заявки читаются курсором базы данных и записываются по мере чтения,
+     * поэтому расход памяти не зависит от количества заявок.
+     * Каждая заявка, включая последнюю, завершается переводом строки.
+     * @param userId уникальный идентификатор организатора.
+     * @param eventId уникальный идентификатор события.
+     * @param outputStream поток для записи заявок в формате {@link ParticipationRequestDto}.
+     */
+    @Override
+    public void exportByInitiator(int userId, int eventId, OutputStream outputStream) throws IOException {
+        log.info("Поступил запрос на выгрузку заявок на участие для организатора c id: {}.", userId);
+        Event event = eventService.findById(eventId);
+        eventService.ownershipChecker(event, userId);
+        ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            requestRepository.streamViewsByEvent(eventId, exportFetchSize, view -> {
+                try {
+                    writer.writeValue(generator, requestMapper.toParticipationRequestDto(view));
+                    generator.writeRaw(RECORD_SEPARATOR);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     /**
      * Сервисный метод пре-модерации статуса заявок на участие в событии.
+     * Если после одобрения заявок достигнуто максимальное количество участников и включено отклонение
+     * оставшихся заявок, все ожидающие рассмотрения заявки события отклоняются.
+     * При одобрении событие блокируется до обновления заявок, как и при подаче заявки, чтобы отклонение
+     * ожидающих заявок не блокировалось взаимно с параллельным одобрением.
      * @param userId уникальный идентификатор организатора события.
      * @param eventId уникальный идентификатор события.
      * @param request запрос со списком заявок и новым статусом в формате {@link EventRequestStatusUpdateRequest}.
@@ -159,20 +271,23 @@ public class RequestServiceImpl implements RequestService {
         Event event = eventService.findById(eventId);
         eventService.ownershipChecker(event, userId);
         if (request.getStatus().equals(State.CONFIRMED)) {
-            if (event.getParticipantLimit() == 0
-                    || event.getParticipantLimit() >= (event.getConfirmedRequests() + request.getRequestIds().size())) {
-                List<ParticipationRequestDto> requests = statusUpdater(request.getRequestIds(), State.CONFIRMED);
-                eventConfirmedRequestsUpdater(event);
-                return EventRequestStatusUpdateResult.builder()
-                        .confirmedRequests(requests)
-                        .build();
-            } else {
+            eventRepository.lockConfirmedRequests(eventId);
+            List<ParticipationRequestDto> requests = statusUpdater(eventId, request.getRequestIds(), State.CONFIRMED);
+            if (eventRepository.reserveConfirmedRequests(eventId, requests.size()) == 0) {
                 throw new ConflictException("Количество одобренных заявок превышает максимальное " +
                         "количество участников.");
             }
+            List<ParticipationRequestDto> rejected = rejectPendingOnLimit
+                    ? requestRepository.rejectPendingIfFull(eventId).stream()
+                    .map(requestMapper::toParticipationRequestDto)
+                    .collect(Collectors.toList())
+                    : List.of();
+            return EventRequestStatusUpdateResult.builder()
+                    .confirmedRequests(requests)
+                    .rejectedRequests(rejected)
+                    .build();
         } else if (request.getStatus().equals(State.REJECTED)) {
-            List<ParticipationRequestDto> requests = statusUpdater(request.getRequestIds(), State.REJECTED);
-            eventConfirmedRequestsUpdater(event);
+            List<ParticipationRequestDto> requests = statusUpdater(eventId, request.getRequestIds(), State.REJECTED);
             return EventRequestStatusUpdateResult.builder()
                     .rejectedRequests(requests)
                     .build();
@@ -182,41 +297,28 @@ public class RequestServiceImpl implements RequestService {
     }
 
     /**
-     * Вспомогательный метод обновления статуса и сохранения списка заявок.
+     * Вспомогательный метод обновления статуса списка заявок одним запросом.
+     * Генерирует {@link ConflictException} если одна или несколько заявок уже были одобрены.
+     * @param eventId уникальный идентификатор события.
      * @param ids список уникальных идентификаторов заявок.
      * @param status новый статус для заявок.
-     * @return возвращает список сохраненных заявок с обновленным статусом в формате {@link ParticipationRequestDto}.
+     * @return возвращает список заявок с обновленным статусом в формате {@link ParticipationRequestDto}.
      */
-    @Transactional
-    private List<ParticipationRequestDto> statusUpdater(List<Integer> ids, State status) {
-        log.debug("Осуществляется обновление и сохранение списка заявок на новый статус: {}.", status);
+    private List<ParticipationRequestDto> statusUpdater(int eventId, List<Integer> ids, State status) {
+        log.debug("Осуществляется обновление списка заявок на новый статус: {}.", status);
         for (int id : ids) {
             if (id == 0) {
                 throw new ValidationException("Один или несколько уникальных идентификаторов не зарегистрированы.");
             }
         }
-        return requestRepository.findAllByIdIn(ids, Sort.by(Sort.Direction.ASC, "id")).stream()
-                .peek(participationRequest -> {
-                    if (participationRequest.getStatus().equals(State.CONFIRMED)) {
-                        throw new ConflictException(String.format("Заявка с id: %d уже была одобрена.",
-                                participationRequest.getId()));
-                    }
-                    participationRequest.setStatus(status);
-                })
+        if (requestRepository.existsByIdInAndEventIdAndStatus(ids, eventId, State.CONFIRMED)) {
+            throw new ConflictException("Одна или несколько заявок уже были одобрены.");
+        }
+        return requestRepository.updateStatus(eventId, ids, status).stream()
                 .map(requestMapper::toParticipationRequestDto)
                 .collect(Collectors.toList());
     }
 
-    /**
-     * Вспомогательный метод обновления списка подтвержденных заявок на участие в событии.
-     * @param event событие в формате {@link Event}.
-     */
-    @Transactional
-    private void eventConfirmedRequestsUpdater(Event event) {
-        log.debug("Поступил запрос на обновление списка подтвержденных заявок на участие в событии.");
-        event.setConfirmedRequests(requestRepository.countByEventAndStatus(event, State.CONFIRMED));
-    }
-
     /**
      * Вспомогательный метод поиска заявки на участие в событии.
      * Генерирует {@link ValidationException} если заявка не зарегистрирована.
@@ -0,0 +1,144 @@
+package ru.practicum.stat.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.StatResponseDto;
+import ru.practicum.assistant.State;
+import ru.practicum.event.repository.EventRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Синхронизация количества просмотров событий с сервисом статистики.
+ * Количество просмотров хранится в таблице событий и читается из нее, без обращения к сервису статистики.
+ * События, статистика которых была передана этим экземпляром, обновляются в течение нескольких секунд,
+ * все опубликованные события периодически обновляются целиком.
+ */
+@Component
+@Slf4j
+public class EventViewsSynchronizer {
+    /**
+     * Префикс идентификатора ресурса события в сервисе статистики.
+     */
+    public static final String EVENT_URI = "/events/";
+    /**
+     * Предоставляет доступ к клиенту сервиса статистики с защитой от его недоступности.
+     */
+    private final ResilientStatClient statService;
+    /**
+     * Предоставляет доступ к репозиторию событий.
+     */
+    private final EventRepository eventRepository;
+    /**
+     * Количество событий, запрашиваемых у сервиса статистики за один запрос.
+     */
+    private final int batchSize;
+    /**
+     * Уникальные идентификаторы событий, количество просмотров которых изменилось.
+     */
+    private final Set<Integer> changed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Конструктор синхронизации.
+     */
+    public EventViewsSynchronizer(ResilientStatClient statService,
+                                  EventRepository eventRepository,
+                                  @Value("${events.views-sync.batch-size:200}") int batchSize) {
+        this.statService = statService;
+        this.eventRepository = eventRepository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Метод учета событий, статистика которых была передана в сервис статистики.
+     * @param event событие передачи статистики.
+     */
+    @EventListener
+    public void onHitsFlushed(HitsFlushedEvent event) {
+        for (String uri : event.getUris()) {
+            if (uri.startsWith(EVENT_URI)) {
+                try {
+                    changed.add(Integer.parseInt(uri.substring(EVENT_URI.length())));
+                } catch (NumberFormatException ignored) {
+                    // ресурс не является страницей события
+                }
+            }
+        }
+    }
+
+    /**
+     * Обновляет количество просмотров событий, статистика которых была передана.
+     * Если сервис статистики недоступен, события будут обновлены при следующем запуске.
+     */
+    @Scheduled(fixedDelayString = "${events.views-sync.changed-interval:5000}")
+    public void syncChanged() {
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<Integer> eventIds = new ArrayList<>(changed);
+        changed.removeAll(eventIds);
+        if (!sync(eventIds)) {
+            changed.addAll(eventIds);
+        }
+    }
+
+    /**
+     * Обновляет количество просмотров всех опубликованных событий.
+     * События перебираются порциями в порядке возрастания уникального идентификатора.
+     */
+    @Scheduled(fixedDelayString = "${events.views-sync.interval:600000}",
+            initialDelayString = "${events.views-sync.initial-delay:10000}")
+    public void syncAll() {
+        log.info("Производится синхронизация количества просмотров опубликованных событий.");
+        int afterId = 0;
+        List<Integer> eventIds;
+        do {
+            eventIds = eventRepository.findIdsByState(State.PUBLISHED, afterId, PageRequest.of(0, batchSize));
+            if (eventIds.isEmpty() || !sync(eventIds)) {
+                return;
+            }
+            afterId = eventIds.get(eventIds.size() - 1);
+        } while (eventIds.size() == batchSize);
+    }
+
+    /**
+     * Вспомогательный метод запроса количества просмотров у сервиса статистики и сохранения его в таблице событий.
+     * События, для которых успешно ответивший сервис статистики не вернул данных, получают нулевое значение.
+     * Если сервис статистики ответил ошибкой или недоступен, количество просмотров не изменяется.
+     * @param eventIds список уникальных идентификаторов событий.
+     * @return возвращает true если количество просмотров было обновлено.
+     */
+    private boolean sync(List<Integer> eventIds) {
+        for (int i = 0; i < eventIds.size(); i += batchSize) {
+            List<Integer> batch = eventIds.subList(i, Math.min(i + batchSize, eventIds.size()));
+            String[] uris = batch.stream()
+                    .map(eventId -> EVENT_URI + eventId)
+                    .toArray(String[]::new);
+            List<StatResponseDto> response;
+            try {
+                response = statService.get(LocalDateTime.now().minusYears(1), LocalDateTime.now().plusDays(1),
+                        uris, true, true).join();
+            } catch (RuntimeException e) {
+                log.warn("Не удалось получить количество просмотров событий. {}", e.getMessage());
+                return false;
+            }
+            Map<Integer, Integer> views = new HashMap<>();
+            for (StatResponseDto stat : response) {
+                views.put(Integer.parseInt(stat.getUri().substring(EVENT_URI.length())), stat.getHits());
+            }
+            batch.forEach(eventId -> views.putIfAbsent(eventId, 0));
+            eventRepository.updateViews(views);
+        }
+        return true;
+    }
+}
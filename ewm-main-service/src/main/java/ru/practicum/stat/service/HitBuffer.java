@@ -0,0 +1,343 @@
+package ru.practicum.stat.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import ru.practicum.StatDto;
+import ru.practicum.assistant.OverflowPolicy;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Буфер статистики просмотров.
+ * Накапливает данные о запросах в ограниченной очереди и передает их в сервис статистики пакетами
+ * в фоновом режиме: по таймеру или при заполнении пакета.
+ */
+@Component
+@Slf4j
+public class HitBuffer {
+    /**
+     * Предоставляет доступ к клиенту сервиса статистики.
+     */
+    private final ResilientStatClient statService;
+    /**
+     * Предоставляет доступ к сериализатору для записи данных на диск.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * Предоставляет доступ к публикации событий приложения.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+    /**
+     * Очередь данных ожидающих передачи.
+     */
+    private final BlockingQueue<StatDto> queue;
+    /**
+     * Максимальный размер пакета.
+     */
+    private final int batchSize;
+    /**
+     * Поведение при переполнении очереди.
+     */
+    private final OverflowPolicy overflowPolicy;
+    /**
+     * Файл для сброса данных, которые не поместились в очередь или не были переданы.
+     */
+    private final Path spillFile;
+    /**
+     * Файл повторно передаваемых данных. Сброшенные данные переносятся в него перед передачей,
+     * чтобы новые данные сбрасывались в отдельный файл.
+     */
+    private final Path replayFile;
+    /**
+     * Блокировка доступа к файлу сброшенных данных.
+     */
+    private final Object spillLock = new Object();
+    /**
+     * Поток внеочередной передачи пакетов.
+     */
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hit-buffer-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * Признак запланированной внеочередной передачи.
+     */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    /**
+     * Счетчик отброшенных данных.
+     */
+    private final Counter droppedCounter;
+    /**
+     * Счетчик данных сброшенных на диск.
+     */
+    private final Counter spilledCounter;
+    /**
+     * Счетчик переданных данных.
+     */
+    private final Counter sentCounter;
+
+    /**
+     * Конструктор буфера.
+     */
+    public HitBuffer(ResilientStatClient statService,
+                     ObjectMapper objectMapper,
+                     ApplicationEventPublisher eventPublisher,
+                     MeterRegistry meterRegistry,
+                     @Value("${stat-server.buffer.capacity:10000}") int capacity,
+                     @Value("${stat-server.buffer.batch-size:500}") int batchSize,
+                     @Value("${stat-server.buffer.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+                     @Value("${stat-server.buffer.spill-file:${java.io.tmpdir}/ewm-hits-spill.ndjson}")
+                     String spillFile) {
+        this.statService = statService;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.spillFile = Paths.get(spillFile);
+        this.replayFile = Paths.get(spillFile + ".replay");
+        Gauge.builder("ewm.stats.buffer.depth", queue, BlockingQueue::size)
+                .description("Количество данных статистики ожидающих передачи.")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("ewm.stats.buffer.dropped")
+                .description("Количество отброшенных данных статистики.")
+                .register(meterRegistry);
+        this.spilledCounter = Counter.builder("ewm.stats.buffer.spilled")
+                .description("Количество данных статистики сброшенных на диск.")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("ewm.stats.buffer.sent")
+                .description("Количество переданных данных статистики.")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Помещает данные в очередь на передачу.
+     * При переполнении очереди действует согласно {@link OverflowPolicy}.
+     * @param statDto данные о запросе в формате {@link StatDto}.
+     */
+    public void add(StatDto statDto) {
+        if (!queue.offer(statDto)) {
+            switch (overflowPolicy) {
+                case BLOCK:
+                    try {
+                        queue.put(statDto);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        droppedCounter.increment();
+                    }
+                    break;
+                case SPILL:
+                    spill(List.of(statDto));
+                    break;
+                default:
+                    droppedCounter.increment();
+            }
+        }
+        if (queue.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Передает накопленные данные в сервис статистики пакетами.
+     * Вызывается по расписанию и при заполнении пакета.
+     */
+    @Scheduled(fixedDelayString = "${stat-server.buffer.flush-interval:1000}")
+    public synchronized void flush() {
+        List<StatDto> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            if (!send(batch)) {
+                return;
+            }
+            batch.clear();
+        }
+        replaySpill();
+    }
+
+    /**
+     * Передает оставшиеся данные при остановке приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        try {
+            flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Вспомогательный метод передачи пакета.
+     * После передачи публикуется {@link HitsFlushedEvent}.
+     * Если сервис статистики недоступен, пакет сбрасывается на диск или отбрасывается согласно {@link OverflowPolicy}.
+     * Если запрос отклонен выключателем или ограничителем, пакет сбрасывается на диск независимо от политики.
+     * @param batch пакет данных.
+     * @return возвращает true если пакет был передан.
+     */
+    private boolean send(List<StatDto> batch) {
+        boolean sent;
+        try {
+            sent = statService.addAll(batch);
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            log.warn("Передача статистики приостановлена. {}", e.getMessage());
+            spill(batch);
+            return false;
+        } catch (RestClientException e) {
+            log.warn("Сервис статистики недоступен. {}", e.getMessage());
+            sent = false;
+        }
+        if (sent) {
+            sentCounter.increment(batch.size());
+            eventPublisher.publishEvent(new HitsFlushedEvent(batch.stream()
+                    .map(StatDto::getUri)
+                    .distinct()
+                    .collect(Collectors.toList())));
+        } else if (overflowPolicy.equals(OverflowPolicy.SPILL)) {
+            spill(batch);
+        } else {
+            droppedCounter.increment(batch.size());
+        }
+        return sent;
+    }
+
+    /**
+     * Вспомогательный метод сброса данных на диск в формате NDJSON.
+     * @param hits список данных.
+     */
+    private void spill(List<StatDto> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        synchronized (spillLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (StatDto hit : hits) {
+                    writer.write(objectMapper.writeValueAsString(hit));
+                    writer.newLine();
+                }
+                spilledCounter.increment(hits.size());
+            } catch (IOException e) {
+                log.warn("Не удалось сбросить данные статистики на диск. {}", e.getMessage());
+                droppedCounter.increment(hits.size());
+            }
+        }
+    }
+
+    /**
+     * Вспомогательный метод повторной передачи данных, сброшенных на диск.
+     * Пока выключатель разомкнут, передача не выполняется. Данные читаются из файла пакетами,
+     * поэтому объем сброшенных данных не ограничивается памятью. Если пакет не был передан,
+     * непрочитанные данные возвращаются в файл сброса.
+     */
+    private void replaySpill() {
+        if (!statService.isAvailable() || !rotateSpill()) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            List<StatDto> batch;
+            while (!(batch = readBatch(reader)).isEmpty()) {
+                if (!send(batch)) {
+                    respill(reader);
+                    break;
+                }
+            }
+            Files.delete(replayFile);
+        } catch (IOException e) {
+            log.warn("Не удалось прочитать сброшенные данные статистики. {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Вспомогательный метод переноса сброшенных данных в файл повторной передачи.
+     * Если файл повторной передачи остался от прерванной передачи, передается он.
+     * @return возвращает true если есть данные для повторной передачи.
+     */
+    private boolean rotateSpill() {
+        synchronized (spillLock) {
+            if (Files.exists(replayFile)) {
+                return true;
+            }
+            if (!Files.exists(spillFile)) {
+                return false;
+            }
+            try {
+                Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                return true;
+            } catch (IOException e) {
+                log.warn("Не удалось подготовить сброшенные данные статистики к передаче. {}", e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Вспомогательный метод чтения пакета сброшенных данных.
+     * Поврежденные записи пропускаются.
+     * @param reader источник данных в формате NDJSON.
+     * @return возвращает пакет данных, пустой если данные закончились.
+     */
+    private List<StatDto> readBatch(BufferedReader reader) throws IOException {
+        List<StatDto> batch = new ArrayList<>(batchSize);
+        String line;
+        while (batch.size() < batchSize && (line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(objectMapper.readValue(line, StatDto.class));
+            } catch (JsonProcessingException e) {
+                log.warn("Пропущена поврежденная запись сброшенных данных статистики. {}", e.getMessage());
+                droppedCounter.increment();
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Вспомогательный метод возврата непрочитанных данных в файл сброса.
+     * @param reader источник данных в формате NDJSON.
+     */
+    private void respill(BufferedReader reader) throws IOException {
+        synchronized (spillLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                reader.transferTo(writer);
+            }
+        }
+    }
+}
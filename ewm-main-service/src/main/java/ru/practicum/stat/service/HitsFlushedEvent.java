@@ -0,0 +1,18 @@
+package ru.practicum.stat.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Событие успешной передачи пакета статистики в сервис статистики.
+ */
+@Getter
+@AllArgsConstructor
+public class HitsFlushedEvent {
+    /**
+     * Идентификаторы ресурсов, по которым были переданы данные.
+     */
+    private final List<String> uris;
+}
@@ -0,0 +1,95 @@
+package ru.practicum.stat.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import ru.practicum.StatDto;
+import ru.practicum.StatResponseDto;
+import ru.practicum.service.AsyncClientService;
+import ru.practicum.service.ClientService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Клиент сервиса статистики с защитой от его недоступности.
+ * Вызовы проходят через автоматический выключатель и ограничитель количества одновременных запросов.
+ * Пока выключатель разомкнут, запросы к сервису статистики не выполняются и сразу завершаются
+ * исключением {@link io.github.resilience4j.circuitbreaker.CallNotPermittedException},
+ * а при превышении ограничения — {@link io.github.resilience4j.bulkhead.BulkheadFullException}.
+ */
+@Component
+public class ResilientStatClient {
+    /**
+     * Название выключателя и ограничителя в конфигурации.
+     */
+    public static final String STATS_SERVER = "stats-server";
+    /**
+     * Предоставляет доступ к клиенту сервиса статистики.
+     */
+    private final ClientService statService;
+    /**
+     * Предоставляет доступ к неблокирующему клиенту сервиса статистики.
+     */
+    private final AsyncClientService asyncStatService;
+    /**
+     * Автоматический выключатель.
+     */
+    private final CircuitBreaker circuitBreaker;
+    /**
+     * Ограничитель количества одновременных запросов.
+     */
+    private final Bulkhead bulkhead;
+
+    /**
+     * Конструктор клиента.
+     */
+    public ResilientStatClient(ClientService statService,
+                               AsyncClientService asyncStatService,
+                               CircuitBreakerRegistry circuitBreakerRegistry,
+                               BulkheadRegistry bulkheadRegistry) {
+        this.statService = statService;
+        this.asyncStatService = asyncStatService;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(STATS_SERVER);
+        this.bulkhead = bulkheadRegistry.bulkhead(STATS_SERVER);
+    }
+
+    /**
+     * Передает пакет данных подлежащих сохранению.
+     * Отказ сервиса статистики принять пакет учитывается выключателем как ошибка.
+     * @return возвращает true если сервис статистики принял пакет.
+     */
+    public boolean addAll(List<StatDto> statDtos) {
+        return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, () -> {
+            if (!statService.addAll(statDtos)) {
+                throw new RestClientException("Сервис статистики не принял пакет данных.");
+            }
+            return true;
+        })).get();
+    }
+
+    /**
+     * Проверяет, пропускает ли выключатель запросы к сервису статистики.
+     * @return возвращает false если выключатель разомкнут.
+     */
+    public boolean isAvailable() {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return !state.equals(CircuitBreaker.State.OPEN) && !state.equals(CircuitBreaker.State.FORCED_OPEN);
+    }
+
+    /**
+     * Асинхронно запрашивает статистику по параметрам.
+     * @return возвращает список данных.
+     */
+    public CompletableFuture<List<StatResponseDto>> get(LocalDateTime start, LocalDateTime end, String[] uris,
+                                                        Boolean unique, boolean approximate) {
+        return Bulkhead.decorateCompletionStage(bulkhead, CircuitBreaker.decorateCompletionStage(circuitBreaker,
+                        () -> asyncStatService.get(start, end, uris, unique, approximate)))
+                .get()
+                .toCompletableFuture();
+    }
+}
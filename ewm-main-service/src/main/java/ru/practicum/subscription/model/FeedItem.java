@@ -0,0 +1,27 @@
+package ru.practicum.subscription.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие новостной ленты с полями, по которым лента упорядочивается.
+ * Не является сущностью и не отслеживается контекстом постоянства.
+ */
+@Getter
+@AllArgsConstructor
+public class FeedItem {
+    /**
+     * Уникальный идентификатор события.
+     */
+    private final int eventId;
+    /**
+     * Дата и время на которые намечено событие.
+     */
+    private final LocalDateTime eventDate;
+    /**
+     * Количество просмотров события.
+     */
+    private final int views;
+}
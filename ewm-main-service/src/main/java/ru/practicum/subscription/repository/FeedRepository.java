@@ -0,0 +1,83 @@
+package ru.practicum.subscription.repository;
+
+import ru.practicum.assistant.SortOption;
+import ru.practicum.subscription.model.FeedItem;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Репозиторий новостных лент подписчиков.
+ * Лента каждого подписчика хранится заранее: опубликованное событие добавляется в ленты всех подписчиков
+ * организатора в момент публикации, поэтому чтение ленты не зависит от количества подписок.
+ * События организаторов с большим количеством подписчиков в ленты не добавляются,
+ * а выбираются при чтении ленты.
+ */
+public interface FeedRepository {
+    /**
+     * Добавляет опубликованное событие в ленты всех подписчиков организатора.
+     * @param eventId уникальный идентификатор события.
+     * @param initiatorId уникальный идентификатор организатора.
+     * @param eventDate дата и время на которые намечено событие.
+     */
+    void addToFeeds(int eventId, int initiatorId, LocalDateTime eventDate);
+
+    /**
+     * Добавляет в ленту подписчика предстоящие опубликованные события организатора.
+     * @param subscriberId уникальный идентификатор подписчика.
+     * @param initiatorId уникальный идентификатор организатора.
+     */
+    void addInitiatorToFeed(int subscriberId, int initiatorId);
+
+    /**
+     * Удаляет из ленты подписчика события организатора.
+     * @param subscriberId уникальный идентификатор подписчика.
+     * @param initiatorId уникальный идентификатор организатора.
+     */
+    void removeInitiatorFromFeed(int subscriberId, int initiatorId);
+
+    /**
+     * Удаляет из лент события, которые уже прошли.
+     * @param before дата и время, ранее которых события считаются прошедшими.
+     * @return возвращает количество удаленных записей.
+     */
+    int removePastFromFeeds(LocalDateTime before);
+
+    /**
+     * Предоставляет события ленты подписчика в порядке сортировки.
+     * @param subscriberId уникальный идентификатор подписчика.
+     * @param onlyAvailable только события, у которых не исчерпан лимит запросов на участие.
+     * @param sort вариант сортировки: по дате события или по количеству просмотров.
+     * @param limit максимальное количество событий.
+     */
+    List<FeedItem> findFeedItems(int subscriberId, boolean onlyAvailable, SortOption sort, long limit);
+
+    /**
+     * Предоставляет предстоящие опубликованные события организатора в порядке сортировки ленты.
+     * @param initiatorId уникальный идентификатор организатора.
+     * @param onlyAvailable только события, у которых не исчерпан лимит запросов на участие.
+     * @param sort вариант сортировки: по дате события или по количеству просмотров.
+     * @param limit максимальное количество событий.
+     */
+    List<FeedItem> findInitiatorFeedItems(int initiatorId, boolean onlyAvailable, SortOption sort, long limit);
+
+    /**
+     * Проверяет, выбираются ли события организатора при чтении ленты.
+     * @param initiatorId уникальный идентификатор организатора.
+     */
+    boolean isPullInitiator(int initiatorId);
+
+    /**
+     * Отмечает организатора, события которого далее выбираются при чтении ленты.
+     * Отметка не снимается, поэтому события, опубликованные после нее, не пропадут из лент
+     * при уменьшении количества подписчиков.
+     * @param initiatorId уникальный идентификатор организатора.
+     */
+    void markPullInitiator(int initiatorId);
+
+    /**
+     * Предоставляет уникальные идентификаторы отмеченных организаторов, на которых подписан подписчик.
+     * @param subscriberId уникальный идентификатор подписчика.
+     */
+    List<Integer> findPullInitiators(int subscriberId);
+}
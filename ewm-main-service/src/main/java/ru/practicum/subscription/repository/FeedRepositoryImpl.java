@@ -0,0 +1,146 @@
+package ru.practicum.subscription.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import ru.practicum.assistant.SortOption;
+import ru.practicum.subscription.model.FeedItem;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Реализация репозитория новостных лент подписчиков.
+ */
+@RequiredArgsConstructor
+public class FeedRepositoryImpl implements FeedRepository {
+    /**
+     * Запрос на добавление события в ленты подписчиков организатора.
+     */
+    private static final String ADD_TO_FEEDS = "INSERT INTO feed_entries (subscriber_id, event_id, event_date) " +
+            "SELECT s.subscriber_id, ?, ? FROM subscriptions s WHERE s.user_id = ? " +
+            "ON CONFLICT DO NOTHING";
+    /**
+     * Запрос на добавление предстоящих событий организатора в ленту подписчика.
+     */
+    private static final String ADD_INITIATOR = "INSERT INTO feed_entries (subscriber_id, event_id, event_date) " +
+            "SELECT ?, e.id, e.event_date FROM events e " +
+            "WHERE e.user_id = ? AND e.state = 'PUBLISHED' AND e.event_date > ? " +
+            "ON CONFLICT DO NOTHING";
+    /**
+     * Запрос на удаление событий организатора из ленты подписчика.
+     */
+    private static final String REMOVE_INITIATOR = "DELETE FROM feed_entries f USING events e " +
+            "WHERE f.subscriber_id = ? AND f.event_id = e.id AND e.user_id = ?";
+    /**
+     * Запрос на удаление прошедших событий из лент.
+     */
+    private static final String REMOVE_PAST = "DELETE FROM feed_entries WHERE event_date < ?";
+    /**
+     * Запрос событий ленты подписчика.
+     */
+    private static final String FEED = "SELECT f.event_id AS id, f.event_date, e.views FROM feed_entries f " +
+            "JOIN events e ON e.id = f.event_id " +
+            "WHERE f.subscriber_id = ? ";
+    /**
+     * Запрос предстоящих опубликованных событий организатора.
+     */
+    private static final String INITIATOR_EVENTS = "SELECT e.id, e.event_date, e.views FROM events e " +
+            "WHERE e.user_id = ? AND e.state = 'PUBLISHED' AND e.event_date > ? ";
+    /**
+     * Запрос наличия отметки организатора.
+     */
+    private static final String IS_PULL = "SELECT EXISTS (SELECT 1 FROM feed_pull_initiators WHERE user_id = ?)";
+    /**
+     * Запрос на отметку организатора.
+     */
+    private static final String MARK_PULL = "INSERT INTO feed_pull_initiators (user_id) VALUES (?) " +
+            "ON CONFLICT DO NOTHING";
+    /**
+     * Запрос отмеченных организаторов, на которых подписан подписчик.
+     */
+    private static final String PULL_INITIATORS = "SELECT p.user_id FROM subscriptions s " +
+            "JOIN feed_pull_initiators p ON p.user_id = s.user_id " +
+            "WHERE s.subscriber_id = ?";
+    /**
+     * Условие по доступности участия в событии.
+     */
+    private static final String AVAILABLE = "AND (e.participant_limit = 0 " +
+            "OR e.confirmed_requests < e.participant_limit) ";
+    /**
+     * Сортировка ленты по дате события.
+     * Поля сортировки указаны по названиям в результате, поэтому лента подписчика упорядочивается
+     * по полям индекса ленты.
+     */
+    private static final String BY_EVENT_DATE = "ORDER BY event_date, id LIMIT ?";
+    /**
+     * Сортировка ленты по количеству просмотров.
+     */
+    private static final String BY_VIEWS = "ORDER BY views DESC, id LIMIT ?";
+    /**
+     * Преобразование строки результата в событие ленты.
+     */
+    private static final RowMapper<FeedItem> ROW_MAPPER = (resultSet, rowNum) ->
+            new FeedItem(resultSet.getInt("id"),
+                    resultSet.getTimestamp("event_date").toLocalDateTime(),
+                    resultSet.getInt("views"));
+    /**
+     * Предоставляет доступ к JDBC.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addToFeeds(int eventId, int initiatorId, LocalDateTime eventDate) {
+        jdbcTemplate.update(ADD_TO_FEEDS, eventId, Timestamp.valueOf(eventDate), initiatorId);
+    }
+
+    @Override
+    public void addInitiatorToFeed(int subscriberId, int initiatorId) {
+        jdbcTemplate.update(ADD_INITIATOR, subscriberId, initiatorId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Override
+    public void removeInitiatorFromFeed(int subscriberId, int initiatorId) {
+        jdbcTemplate.update(REMOVE_INITIATOR, subscriberId, initiatorId);
+    }
+
+    @Override
+    public int removePastFromFeeds(LocalDateTime before) {
+        return jdbcTemplate.update(REMOVE_PAST, Timestamp.valueOf(before));
+    }
+
+    @Override
+    public List<FeedItem> findFeedItems(int subscriberId, boolean onlyAvailable, SortOption sort, long limit) {
+        return jdbcTemplate.query(ordered(FEED, onlyAvailable, sort), ROW_MAPPER, subscriberId, limit);
+    }
+
+    @Override
+    public List<FeedItem> findInitiatorFeedItems(int initiatorId, boolean onlyAvailable, SortOption sort,
+                                                 long limit) {
+        return jdbcTemplate.query(ordered(INITIATOR_EVENTS, onlyAvailable, sort), ROW_MAPPER,
+                initiatorId, Timestamp.valueOf(LocalDateTime.now()), limit);
+    }
+
+    @Override
+    public boolean isPullInitiator(int initiatorId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PULL, Boolean.class, initiatorId));
+    }
+
+    @Override
+    public void markPullInitiator(int initiatorId) {
+        jdbcTemplate.update(MARK_PULL, initiatorId);
+    }
+
+    @Override
+    public List<Integer> findPullInitiators(int subscriberId) {
+        return jdbcTemplate.queryForList(PULL_INITIATORS, Integer.class, subscriberId);
+    }
+
+    /**
+     * Вспомогательный метод добавления к запросу условия доступности и сортировки.
+     */
+    private String ordered(String sql, boolean onlyAvailable, SortOption sort) {
+        return sql + (onlyAvailable ? AVAILABLE : "") + (SortOption.VIEWS.equals(sort) ? BY_VIEWS : BY_EVENT_DATE);
+    }
+}
@@ -9,7 +9,7 @@ import ru.practicum.user.model.User;
 /**
  * Репозиторий данных подписок.
  */
-public interface SubscriptionRepository extends JpaRepository<Subscription, Integer> {
+public interface SubscriptionRepository extends JpaRepository<Subscription, Integer>, FeedRepository {
     boolean existsByUserAndSubscriber(User user, User subscriber);
 
     Page<Subscription> findAllBySubscriber(User subscriber, Pageable pageable);
@@ -17,4 +17,6 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Inte
     Page<Subscription> findAllByUser(User user, Pageable pageable);
 
     Subscription findByUserAndSubscriber(User user, User subscriber);
+
+    long countByUserId(int userId);
 }
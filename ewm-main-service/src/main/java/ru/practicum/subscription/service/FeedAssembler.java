@@ -0,0 +1,163 @@
+package ru.practicum.subscription.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.assistant.SortOption;
+import ru.practicum.subscription.model.FeedItem;
+import ru.practicum.subscription.repository.SubscriptionRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Формирование новостных лент подписчиков.
+ * События обычных организаторов добавляются в ленты подписчиков при публикации.
+ * События организаторов, количество подписчиков которых достигло порога, в ленты не добавляются:
+ * при чтении ленты они выбираются по каждому такому организатору отдельно и объединяются с лентой
+ * слиянием упорядоченных списков.
+ */
+@Component
+@Slf4j
+public class FeedAssembler {
+    /**
+     * Предоставляет доступ к репозиторию подписок.
+     */
+    private final SubscriptionRepository subscriptionRepository;
+    /**
+     * Количество подписчиков, начиная с которого события организатора выбираются при чтении ленты.
+     */
+    private final long followerThreshold;
+
+    /**
+     * Конструктор формирования лент.
+     */
+    public FeedAssembler(SubscriptionRepository subscriptionRepository,
+                         @Value("${feed.fan-out.follower-threshold:10000}") long followerThreshold) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.followerThreshold = followerThreshold;
+    }
+
+    /**
+     * Учитывает публикацию события.
+     * Событие добавляется в ленты подписчиков организатора, если их количество меньше порога,
+     * иначе организатор отмечается и его события далее выбираются при чтении ленты.
+     * @param eventId уникальный идентификатор события.
+     * @param initiatorId уникальный идентификатор организатора.
+     * @param eventDate дата и время на которые намечено событие.
+     */
+    public void onPublish(int eventId, int initiatorId, LocalDateTime eventDate) {
+        if (subscriptionRepository.isPullInitiator(initiatorId)) {
+            return;
+        }
+        if (subscriptionRepository.countByUserId(initiatorId) >= followerThreshold) {
+            log.info("События организатора с id: {} далее выбираются при чтении лент.", initiatorId);
+            subscriptionRepository.markPullInitiator(initiatorId);
+            return;
+        }
+        subscriptionRepository.addToFeeds(eventId, initiatorId, eventDate);
+    }
+
+    /**
+     * Предоставляет уникальные идентификаторы событий ленты подписчика в порядке сортировки.
+     * @param subscriberId уникальный идентификатор подписчика.
+     * @param onlyAvailable только события, у которых не исчерпан лимит запросов на участие.
+     * @param sort вариант сортировки: по дате события или по количеству просмотров.
+     * @param offset количество событий, которые нужно пропустить.
+     * @param limit максимальное количество событий.
+     */
+    public List<Integer> getFeedEventIds(int subscriberId, boolean onlyAvailable, SortOption sort,
+                                         long offset, int limit) {
+        long depth = offset + limit;
+        List<List<FeedItem>> sources = new ArrayList<>();
+        sources.add(subscriptionRepository.findFeedItems(subscriberId, onlyAvailable, sort, depth));
+        for (int initiatorId : subscriptionRepository.findPullInitiators(subscriberId)) {
+            sources.add(subscriptionRepository.findInitiatorFeedItems(initiatorId, onlyAvailable, sort, depth));
+        }
+        return merge(sources, order(sort), offset, limit);
+    }
+
+    /**
+     * Вспомогательный метод слияния упорядоченных списков событий.
+     * Событие, присутствующее в нескольких списках, учитывается один раз.
+     * @param sources упорядоченные списки событий.
+     * @param order порядок событий.
+     * @param offset количество событий, которые нужно пропустить.
+     * @param limit максимальное количество событий.
+     * @return возвращает уникальные идентификаторы событий.
+     */
+    private List<Integer> merge(List<List<FeedItem>> sources, Comparator<FeedItem> order, long offset, int limit) {
+        if (sources.size() == 1) {
+            return sources.get(0).stream()
+                    .skip(offset)
+                    .limit(limit)
+                    .map(FeedItem::getEventId)
+                    .collect(Collectors.toList());
+        }
+        PriorityQueue<Head> heads = new PriorityQueue<>(sources.size(),
+                (first, second) -> order.compare(first.item, second.item));
+        for (List<FeedItem> source : sources) {
+            Iterator<FeedItem> iterator = source.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+        Set<Integer> seen = new HashSet<>();
+        List<Integer> ids = new ArrayList<>(limit);
+        long skipped = 0;
+        while (!heads.isEmpty() && ids.size() < limit) {
+            Head head = heads.poll();
+            if (seen.add(head.item.getEventId())) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    ids.add(head.item.getEventId());
+                }
+            }
+            if (head.rest.hasNext()) {
+                heads.add(new Head(head.rest.next(), head.rest));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Вспомогательный метод формирования порядка событий ленты.
+     * При равенстве основного ключа события упорядочиваются по уникальному идентификатору.
+     * @param sort вариант сортировки: по дате события или по количеству просмотров.
+     */
+    private Comparator<FeedItem> order(SortOption sort) {
+        if (SortOption.VIEWS.equals(sort)) {
+            return Comparator.comparingInt(FeedItem::getViews).reversed()
+                    .thenComparingInt(FeedItem::getEventId);
+        }
+        return Comparator.comparing(FeedItem::getEventDate)
+                .thenComparingInt(FeedItem::getEventId);
+    }
+
+    /**
+     * Текущее событие списка при слиянии.
+     */
+    private static class Head {
+        /**
+         * Текущее событие.
+         */
+        private final FeedItem item;
+        /**
+         * Оставшиеся события списка.
+         */
+        private final Iterator<FeedItem> rest;
+
+        private Head(FeedItem item, Iterator<FeedItem> rest) {
+            this.item = item;
+            this.rest = rest;
+        }
+    }
+}
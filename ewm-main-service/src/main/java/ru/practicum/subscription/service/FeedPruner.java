@@ -0,0 +1,35 @@
+package ru.practicum.subscription.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.subscription.repository.SubscriptionRepository;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+
+/**
+ * Очистка новостных лент подписчиков от прошедших событий.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FeedPruner {
+    /**
+     * Предоставляет доступ к репозиторию подписок.
+     */
+    private final SubscriptionRepository subscriptionRepository;
+
+    /**
+     * Удаляет из лент события, дата которых уже наступила.
+     */
+    @Scheduled(cron = "${feed.prune.cron:0 */10 * * * *}")
+    @Transactional
+    public void prune() {
+        int removed = subscriptionRepository.removePastFromFeeds(LocalDateTime.now());
+        if (removed != 0) {
+            log.info("Из новостных лент удалено прошедших событий: {}.", removed);
+        }
+    }
+}
@@ -41,6 +41,8 @@ public class SubscriptionServiceImpl implements SubscriptionService {
 
     /**
      * Сервисный метод оформления подписки.
+     * Предстоящие опубликованные события пользователя добавляются в новостную ленту подписчика,
+     * если события пользователя не выбираются при чтении ленты.
      * @param userId уникальный идентификатор пользователя на которого оформляется подписка.
      * @param subscriberId уникальный идентификатор пользователя который оформляет подписку.
      * @return возвращает зарегистрированную и оформленную подписку в формате {@link SubscriptionDto}.
@@ -57,11 +59,15 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         if (subscriptionRepository.existsByUserAndSubscriber(user, subscriber)) {
             throw new ConflictException("Вы уже являетесь подписчиком.");
         }
-        return subscriptionMapper.toSubscriptionDto(subscriptionRepository.save(Subscription.builder()
+        Subscription subscription = subscriptionRepository.save(Subscription.builder()
                 .user(user)
                 .subscriber(subscriber)
                 .created(LocalDateTime.now())
-                .build()));
+                .build());
+        if (!subscriptionRepository.isPullInitiator(userId)) {
+            subscriptionRepository.addInitiatorToFeed(subscriberId, userId);
+        }
+        return subscriptionMapper.toSubscriptionDto(subscription);
     }
 
     /**
@@ -102,6 +108,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
 
     /**
      * Сервисный метод отписка.
+     * События пользователя удаляются из новостной ленты подписчика.
      * @param userId уникальный идентификатор пользователя от которого подписывается подписчик.
      * @param subscriberId уникальный идентификатор пользователя-подписчика.
      */
@@ -118,5 +125,6 @@ public class SubscriptionServiceImpl implements SubscriptionService {
             throw new ConflictException("Вы не являетесь подписчиком.");
         }
         subscriptionRepository.delete(subscriptionRepository.findByUserAndSubscriber(user, subscriber));
+        subscriptionRepository.removeInitiatorFromFeed(subscriberId, userId);
     }
 }
@@ -1,12 +1,3 @@
-DROP TABLE IF EXISTS category CASCADE;
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS locations CASCADE;
-DROP TABLE IF EXISTS events CASCADE;
-DROP TABLE IF EXISTS requests CASCADE;
-DROP TABLE IF EXISTS compilations CASCADE;
-DROP TABLE IF EXISTS compilations_events CASCADE;
-DROP TABLE IF EXISTS subscriptions CASCADE;
-
 CREATE TABLE IF NOT EXISTS category (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   category_name VARCHAR(50) NOT NULL,
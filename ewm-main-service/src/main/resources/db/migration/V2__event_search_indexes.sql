@@ -0,0 +1,23 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_events_annotation_trgm ON events USING GIN (lower(annotation) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS ix_events_description_trgm ON events USING GIN (lower(description) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS ix_events_search ON events
+  USING GIN (to_tsvector('russian', title || ' ' || annotation || ' ' || description));
+
+CREATE INDEX IF NOT EXISTS ix_events_published_event_date_id ON events (event_date, id)
+  WHERE state = 'PUBLISHED';
+CREATE INDEX IF NOT EXISTS ix_events_published_views_id ON events (views DESC, id)
+  WHERE state = 'PUBLISHED';
+CREATE INDEX IF NOT EXISTS ix_events_published_category_event_date ON events (category_id, event_date)
+  WHERE state = 'PUBLISHED';
+CREATE INDEX IF NOT EXISTS ix_events_category_id ON events (category_id);
+CREATE INDEX IF NOT EXISTS ix_events_user_id_id ON events (user_id, id);
+CREATE INDEX IF NOT EXISTS ix_events_state_id ON events (state, id);
+
+CREATE INDEX IF NOT EXISTS ix_requests_event_id_state ON requests (event_id, state);
+
+CREATE INDEX IF NOT EXISTS ix_subscriptions_subscriber_id ON subscriptions (subscriber_id);
+CREATE INDEX IF NOT EXISTS ix_subscriptions_user_id ON subscriptions (user_id);
+
+CREATE INDEX IF NOT EXISTS ix_compilations_events_compilation_id ON compilations_events (compilation_id);
@@ -0,0 +1 @@
+CREATE UNIQUE INDEX IF NOT EXISTS ux_requests_event_id_user_id ON requests (event_id, user_id);
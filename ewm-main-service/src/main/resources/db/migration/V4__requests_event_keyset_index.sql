@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS ix_requests_event_id_id ON requests (event_id, id);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS ix_requests_user_id_id ON requests (user_id, id);
@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS feed_entries (
+  subscriber_id BIGINT NOT NULL,
+  event_id BIGINT NOT NULL,
+  event_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  CONSTRAINT pk_feed_entries PRIMARY KEY (subscriber_id, event_id),
+  CONSTRAINT fk_feed_entries_subscriber_id FOREIGN KEY (subscriber_id) REFERENCES users(id) ON DELETE CASCADE,
+  CONSTRAINT fk_feed_entries_event_id FOREIGN KEY (event_id) REFERENCES events(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS ix_feed_entries_subscriber_id_event_date ON feed_entries (subscriber_id, event_date, event_id);
+CREATE INDEX IF NOT EXISTS ix_feed_entries_event_id ON feed_entries (event_id);
+CREATE INDEX IF NOT EXISTS ix_feed_entries_event_date ON feed_entries (event_date);
+
+INSERT INTO feed_entries (subscriber_id, event_id, event_date)
+SELECT s.subscriber_id, e.id, e.event_date
+FROM subscriptions s
+JOIN events e ON e.user_id = s.user_id
+WHERE e.state = 'PUBLISHED' AND e.event_date > now()
+ON CONFLICT DO NOTHING;
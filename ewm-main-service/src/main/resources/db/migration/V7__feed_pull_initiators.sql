@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS feed_pull_initiators (
+  user_id BIGINT NOT NULL,
+  CONSTRAINT pk_feed_pull_initiators PRIMARY KEY (user_id),
+  CONSTRAINT fk_feed_pull_initiators_user_id FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS ix_events_published_user_id_event_date ON events (user_id, event_date, id)
+  WHERE state = 'PUBLISHED';
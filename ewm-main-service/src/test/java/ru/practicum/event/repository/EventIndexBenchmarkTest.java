@@ -0,0 +1,123 @@
+package ru.practicum.event.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.PostgresContainerTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнение планов запросов публичного поиска событий на 1 000 000 событий с индексами и без них.
+ * Планы и время выполнения выводятся в журнал. Запускается явно: mvn test -Dbenchmark=true.
+ */
+@Slf4j
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EventIndexBenchmarkTest extends PostgresContainerTest {
+    /**
+     * Количество событий.
+     */
+    private static final int EVENTS = 1_000_000;
+    /**
+     * Заполнение справочников.
+     */
+    private static final List<String> SEED = List.of(
+            "INSERT INTO category (category_name) SELECT 'benchmark-' || g FROM generate_series(1, 50) g",
+            "INSERT INTO users (user_name, user_email) " +
+                    "SELECT 'benchmark-' || g, 'benchmark-' || g || '@mail.ru' FROM generate_series(1, 1000) g",
+            "INSERT INTO locations (lat, lon) VALUES (55.75, 37.62)");
+    /**
+     * Заполнение событий: 80% опубликованы, слово «концерт» встречается в каждом тысячном событии.
+     */
+    private static final String SEED_EVENTS = "INSERT INTO events (annotation, category_id, confirmed_requests, " +
+            "created_on, description, event_date, user_id, location_id, paid, participant_limit, published_on, " +
+            "request_moderation, state, title, views) " +
+            "SELECT 'Аннотация события ' || g || CASE WHEN g % 1000 = 0 THEN ' концерт' ELSE ' лекция' END, " +
+            "(SELECT min(id) FROM category) + g % 50, 0, now(), " +
+            "repeat(md5(g::text), 20) || CASE WHEN g % 1000 = 0 THEN ' концерт' ELSE ' лекция' END, " +
+            "now() + (g % 8760) * interval '1 hour', (SELECT min(id) FROM users) + g % 1000, " +
+            "(SELECT min(id) FROM locations), g % 2 = 0, g % 100, now(), true, " +
+            "CASE WHEN g % 5 = 0 THEN 'PENDING' ELSE 'PUBLISHED' END, 'Событие ' || g, g % 10000 " +
+            "FROM generate_series(1, ?) g";
+    /**
+     * Отключение индексного доступа в пределах транзакции.
+     */
+    private static final List<String> NO_INDEXES = List.of(
+            "SET LOCAL enable_indexscan = off",
+            "SET LOCAL enable_indexonlyscan = off",
+            "SET LOCAL enable_bitmapscan = off");
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void seed() {
+        SEED.forEach(jdbcTemplate::execute);
+        jdbcTemplate.update(SEED_EVENTS, EVENTS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void publishedByEventDate() {
+        compare("SELECT id FROM events WHERE state = 'PUBLISHED' AND event_date > now() " +
+                "ORDER BY event_date, id LIMIT 10");
+    }
+
+    @Test
+    void publishedByViews() {
+        compare("SELECT id FROM events WHERE state = 'PUBLISHED' ORDER BY views DESC, id LIMIT 10");
+    }
+
+    @Test
+    void publishedByCategory() {
+        compare("SELECT id FROM events WHERE state = 'PUBLISHED' " +
+                "AND category_id = (SELECT min(id) FROM category) AND event_date > now() " +
+                "ORDER BY event_date LIMIT 10");
+    }
+
+    @Test
+    void fullTextSearch() {
+        compare("SELECT id FROM events WHERE state = 'PUBLISHED' " +
+                "AND to_tsvector('russian', title || ' ' || annotation || ' ' || description) " +
+                "@@ plainto_tsquery('russian', 'концерт') LIMIT 10");
+    }
+
+    @Test
+    void substringSearch() {
+        compare("SELECT id FROM events WHERE state = 'PUBLISHED' " +
+                "AND (lower(annotation) LIKE '%концерт%' OR lower(description) LIKE '%концерт%') LIMIT 10");
+    }
+
+    /**
+     * Вспомогательный метод сравнения планов запроса с индексами и без них.
+     */
+    private void compare(String sql) {
+        String indexed = explain(sql, false);
+        String sequential = explain(sql, true);
+        log.info("Запрос: {}\nС индексами:\n{}\nБез индексов:\n{}", sql, indexed, sequential);
+        assertFalse(indexed.contains("Seq Scan on events"), indexed);
+        assertTrue(sequential.contains("Seq Scan on events"), sequential);
+    }
+
+    /**
+     * Вспомогательный метод получения плана и времени выполнения запроса.
+     */
+    private String explain(String sql, boolean withoutIndexes) {
+        return transactionTemplate.execute(status -> {
+            if (withoutIndexes) {
+                NO_INDEXES.forEach(jdbcTemplate::execute);
+            }
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN ANALYZE " + sql, String.class));
+        });
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.event.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.PostgresContainerTest;
+import ru.practicum.event.mapper.EventMapper;
+import ru.practicum.event.model.EventCursor;
+import ru.practicum.event.model.QEvent;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверка количества SQL запросов при загрузке страниц событий.
+ * Каждое событие ссылается на собственные категорию, организатора и место проведения,
+ * поэтому их загрузка отдельными запросами увеличила бы количество запросов вместе с размером страницы.
+ */
+@Transactional
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EventQueryStatementCountTest extends PostgresContainerTest {
+    /**
+     * Количество событий.
+     */
+    private static final int EVENTS = 60;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private EventMapper eventMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    private final List<Integer> initiators = new ArrayList<>();
+    private final List<Integer> events = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < EVENTS; i++) {
+            String name = "statements-" + System.nanoTime() + "-" + i;
+            Integer category = jdbcTemplate.queryForObject(
+                    "INSERT INTO category (category_name) VALUES (?) RETURNING id", Integer.class, name);
+            Integer user = jdbcTemplate.queryForObject(
+                    "INSERT INTO users (user_name, user_email) VALUES (?, ?) RETURNING id", Integer.class,
+                    name, name + "@mail.ru");
+            Integer location = jdbcTemplate.queryForObject(
+                    "INSERT INTO locations (lat, lon) VALUES (55.75, 37.62) RETURNING id", Integer.class);
+            initiators.add(user);
+            events.add(jdbcTemplate.queryForObject("INSERT INTO events (annotation, category_id, " +
+                    "confirmed_requests, created_on, description, event_date, user_id, location_id, paid, " +
+                    "participant_limit, published_on, request_moderation, state, title, views) " +
+                    "VALUES ('Аннотация', ?, 0, now(), 'Описание', ?, ?, ?, false, 0, now(), true, " +
+                    "'PUBLISHED', 'Событие', 0) RETURNING id", Integer.class,
+                    category, Timestamp.valueOf(LocalDateTime.now().plusDays(i + 1)), user, location));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50})
+    void shortViewPageIsOneStatement(int size) {
+        OrderSpecifier<?>[] order = {QEvent.event.eventDate.asc(), QEvent.event.id.asc()};
+        assertEquals(1, statements(() -> eventRepository.findShortViews(byInitiators(), order, 0, size).stream()
+                .map(eventMapper::toEventShortDto)
+                .collect(Collectors.toList())));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50})
+    void keysetPageIsOneStatement(int size) {
+        assertEquals(1, statements(() -> eventRepository
+                .findAllAfter(byInitiators(), EventCursor.decode(null, EventCursor.Key.ID), size).stream()
+                .map(eventMapper::toEventFullDto)
+                .collect(Collectors.toList())));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50})
+    void offsetPageIsPageAndCountStatements(int size) {
+        assertEquals(2, statements(() -> eventRepository
+                .findAll(byInitiators(), PageRequest.of(0, size, Sort.by("id"))).stream()
+                .map(eventMapper::toEventFullDto)
+                .collect(Collectors.toList())));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50})
+    void byIdsIsOneStatement(int size) {
+        assertEquals(1, statements(() -> eventRepository.findAllByIdIn(events.subList(0, size)).stream()
+                .map(eventMapper::toEventShortDto)
+                .collect(Collectors.toList())));
+    }
+
+    /**
+     * Вспомогательный метод условия по организаторам тестовых событий.
+     */
+    private Predicate byInitiators() {
+        return QEvent.event.initiator.id.in(initiators);
+    }
+
+    /**
+     * Вспомогательный метод подсчета SQL запросов, выполненных действием с пустым контекстом постоянства.
+     */
+    private long statements(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
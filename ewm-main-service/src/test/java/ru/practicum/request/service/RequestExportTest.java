@@ -0,0 +1,98 @@
+package ru.practicum.request.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.assistant.State;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.event.service.EventService;
+import ru.practicum.request.dto.ParticipationRequestDto;
+import ru.practicum.request.mapper.RequestMapperImpl;
+import ru.practicum.request.model.ParticipationRequestView;
+import ru.practicum.request.repository.RequestRepository;
+import ru.practicum.user.service.UserService;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Проверка потоковой выгрузки заявок на участие в событии в формате NDJSON.
+ */
+class RequestExportTest {
+    private static final int EVENT_ID = 7;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RequestRepository requestRepository;
+    private RequestService requestService;
+
+    @BeforeEach
+    void setUp() {
+        requestRepository = mock(RequestRepository.class);
+        requestService = new RequestServiceImpl(requestRepository, mock(UserService.class), mock(EventService.class),
+                mock(EventRepository.class), new RequestMapperImpl(), objectMapper);
+    }
+
+    @Test
+    void exportByInitiatorTerminatesEveryRecordWithNewline() throws IOException {
+        List<ParticipationRequestView> views = List.of(
+                view(1, State.CONFIRMED),
+                view(2, State.PENDING),
+                view(3, State.REJECTED));
+        stream(views);
+
+        String body = export();
+
+        assertTrue(body.endsWith("\n"));
+        List<ParticipationRequestDto> requests = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(body))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                requests.add(objectMapper.readValue(line, ParticipationRequestDto.class));
+            }
+        }
+        assertEquals(views.size(), requests.size());
+        for (int i = 0; i < views.size(); i++) {
+            assertEquals(views.get(i).getId(), requests.get(i).getId());
+            assertEquals(views.get(i).getStatus().name(), requests.get(i).getStatus());
+        }
+    }
+
+    @Test
+    void exportByInitiatorWritesNothingWithoutRequests() throws IOException {
+        stream(List.of());
+
+        assertEquals("", export());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stream(List<ParticipationRequestView> views) {
+        doAnswer(invocation -> {
+            views.forEach(invocation.<Consumer<ParticipationRequestView>>getArgument(2));
+            return null;
+        }).when(requestRepository).streamViewsByEvent(eq(EVENT_ID), anyInt(), any(Consumer.class));
+    }
+
+    private String export() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        requestService.exportByInitiator(1, EVENT_ID, outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    private ParticipationRequestView view(int id, State status) {
+        return new ParticipationRequestView(id, LocalDateTime.of(2030, 1, 1, 12, 0), EVENT_ID, 100 + id, status);
+    }
+}
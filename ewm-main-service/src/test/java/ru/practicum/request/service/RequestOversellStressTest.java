@@ -0,0 +1,273 @@
+package ru.practicum.request.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.PostgresContainerTest;
+import ru.practicum.assistant.State;
+import ru.practicum.event.repository.EventRepository;
+import ru.practicum.exception.model.ConflictException;
+import ru.practicum.request.dto.EventRequestStatusUpdateRequest;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка отсутствия превышения максимального количества участников при параллельной
+ * подаче, одобрении и отмене тысяч заявок на участие в нескольких событиях с разными ограничениями.
+ * После каждой проверки количество одобренных заявок каждого события должно совпадать с заявками.
+ */
+class RequestOversellStressTest extends PostgresContainerTest {
+    /**
+     * Количество параллельных потоков.
+     */
+    private static final int THREADS = 64;
+    /**
+     * Количество пользователей, претендующих на участие.
+     */
+    private static final int REQUESTERS = 2000;
+    /**
+     * Максимальные количества участников событий.
+     */
+    private static final int[] LIMITS = {1, 7, 64, 500};
+    @Autowired
+    private RequestService requestService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private final Random random = new Random(20);
+
+    @Test
+    void reserveConfirmedRequestsDoesNotOversell() throws Exception {
+        Map<Integer, Integer> limits = events(user(), false);
+        Map<Integer, AtomicInteger> reserved = counters(limits);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < REQUESTERS; i++) {
+            for (int eventId : limits.keySet()) {
+                tasks.add(() -> {
+                    boolean success = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                            eventRepository.reserveConfirmedRequests(eventId, 1) == 1));
+                    if (success) {
+                        reserved.get(eventId).incrementAndGet();
+                    }
+                    return success;
+                });
+            }
+        }
+
+        concurrently(tasks);
+        limits.forEach((eventId, limit) -> {
+            assertEquals(limit, reserved.get(eventId).get());
+            assertEquals(limit, confirmedRequests(eventId));
+        });
+    }
+
+    @Test
+    void addDoesNotOversell() throws Exception {
+        Map<Integer, Integer> limits = events(user(), false);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int userId : users(REQUESTERS)) {
+            for (int eventId : limits.keySet()) {
+                tasks.add(() -> requestService.add(userId, eventId) != null);
+            }
+        }
+
+        assertEquals(limits.values().stream().mapToInt(Integer::intValue).sum(), concurrently(tasks));
+        assertConsistent(limits);
+        limits.forEach((eventId, limit) -> assertEquals(limit, confirmedRequests(eventId)));
+    }
+
+    @Test
+    void moderationDoesNotOversell() throws Exception {
+        int initiatorId = user();
+        Map<Integer, Integer> limits = events(initiatorId, true);
+        List<Integer> users = users(REQUESTERS);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int eventId : limits.keySet()) {
+            List<Integer> requestIds = pending(eventId, users);
+            for (int i = 0; i < requestIds.size(); ) {
+                int size = Math.min(1 + random.nextInt(3), requestIds.size() - i);
+                EventRequestStatusUpdateRequest update = EventRequestStatusUpdateRequest.builder()
+                        .requestIds(requestIds.subList(i, i + size))
+                        .status(State.CONFIRMED)
+                        .build();
+                tasks.add(() -> requestService.moderation(initiatorId, eventId, update) != null);
+                i += size;
+            }
+        }
+        Collections.shuffle(tasks, random);
+
+        assertTrue(concurrently(tasks) > 0);
+        assertConsistent(limits);
+    }
+
+    @Test
+    void addModerationAndCancelKeepCounters() throws Exception {
+        int initiatorId = user();
+        Map<Integer, Integer> limits = events(initiatorId, true);
+        List<Integer> users = users(REQUESTERS);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int eventId : limits.keySet()) {
+            List<Integer> requestIds = pending(eventId, users);
+            for (int i = 0; i < requestIds.size(); i++) {
+                int requesterId = users.get(i);
+                int requestId = requestIds.get(i);
+                EventRequestStatusUpdateRequest update = EventRequestStatusUpdateRequest.builder()
+                        .requestIds(List.of(requestId))
+                        .status(State.CONFIRMED)
+                        .build();
+                tasks.add(() -> requestService.moderation(initiatorId, eventId, update) != null);
+                if (i % 3 == 0) {
+                    tasks.add(() -> requestService.cancel(requesterId, requestId) != null);
+                    tasks.add(() -> requestService.cancel(requesterId, requestId) != null);
+                }
+            }
+        }
+        Collections.shuffle(tasks, random);
+
+        concurrently(tasks);
+        assertConsistent(limits);
+    }
+
+    @Test
+    void concurrentCancelDecrementsOnce() throws Exception {
+        Map<Integer, Integer> limits = events(user(), false);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int eventId : limits.keySet()) {
+            int requesterId = user();
+            int requestId = requestService.add(requesterId, eventId).getId();
+            for (int i = 0; i < THREADS / limits.size(); i++) {
+                tasks.add(() -> requestService.cancel(requesterId, requestId) != null);
+            }
+        }
+
+        assertEquals(tasks.size(), concurrently(tasks));
+        assertConsistent(limits);
+        limits.keySet().forEach(eventId -> assertEquals(0, confirmedRequests(eventId)));
+    }
+
+    /**
+     * Проверяет для каждого события, что количество одобренных заявок не превышает ограничение
+     * и совпадает с количеством одобренных заявок в таблице заявок.
+     */
+    private void assertConsistent(Map<Integer, Integer> limits) {
+        limits.forEach((eventId, limit) -> {
+            int confirmed = confirmedRequests(eventId);
+            assertTrue(confirmed <= limit, "Превышено ограничение участников события " + eventId);
+            assertEquals(confirmed, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM requests " +
+                    "WHERE event_id = ? AND state = 'CONFIRMED'", Integer.class, eventId),
+                    "Расхождение количества одобренных заявок события " + eventId);
+        });
+    }
+
+    /**
+     * Одновременно запускает задачи и возвращает количество успешных.
+     * Отказ по исчерпанию лимита считается неуспешной задачей, любая другая ошибка проваливает тест.
+     */
+    private int concurrently(List<Callable<Boolean>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Callable<Boolean> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        if (task.call()) {
+                            succeeded.incrementAndGet();
+                        }
+                    } catch (ConflictException ignored) {
+                        // лимит участников исчерпан
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return succeeded.get();
+    }
+
+    private Map<Integer, AtomicInteger> counters(Map<Integer, Integer> limits) {
+        Map<Integer, AtomicInteger> counters = new ConcurrentHashMap<>();
+        limits.keySet().forEach(eventId -> counters.put(eventId, new AtomicInteger()));
+        return counters;
+    }
+
+    private int confirmedRequests(int eventId) {
+        return jdbcTemplate.queryForObject("SELECT confirmed_requests FROM events WHERE id = ?",
+                Integer.class, eventId);
+    }
+
+    private int user() {
+        return users(1).get(0);
+    }
+
+    private List<Integer> users(int count) {
+        String prefix = "oversell-" + System.nanoTime() + "-";
+        return jdbcTemplate.queryForList("INSERT INTO users (user_name, user_email) " +
+                "SELECT ? || g, ? || g || '@mail.ru' FROM generate_series(1, ?) g ORDER BY g RETURNING id",
+                Integer.class, prefix, prefix, count);
+    }
+
+    /**
+     * Регистрирует ожидающие рассмотрения заявки пользователей на участие в событии.
+     * @return возвращает уникальные идентификаторы заявок в порядке пользователей.
+     */
+    private List<Integer> pending(int eventId, List<Integer> users) {
+        List<Integer> requestIds = new ArrayList<>(users.size());
+        for (int userId : users) {
+            requestIds.add(jdbcTemplate.queryForObject("INSERT INTO requests (created, event_id, user_id, state) " +
+                    "VALUES (now(), ?, ?, 'PENDING') RETURNING id", Integer.class, eventId, userId));
+        }
+        return requestIds;
+    }
+
+    /**
+     * Регистрирует опубликованные события организатора со всеми ограничениями участников.
+     * @return возвращает ограничения участников по уникальным идентификаторам событий.
+     */
+    private Map<Integer, Integer> events(int initiatorId, boolean requestModeration) {
+        Map<Integer, Integer> limits = new HashMap<>();
+        for (int limit : LIMITS) {
+            Integer category = jdbcTemplate.queryForObject("INSERT INTO category (category_name) VALUES (?) " +
+                    "RETURNING id", Integer.class, "oversell-" + System.nanoTime());
+            Integer location = jdbcTemplate.queryForObject(
+                    "INSERT INTO locations (lat, lon) VALUES (55.75, 37.62) RETURNING id", Integer.class);
+            limits.put(jdbcTemplate.queryForObject("INSERT INTO events (annotation, category_id, " +
+                    "confirmed_requests, created_on, description, event_date, user_id, location_id, paid, " +
+                    "participant_limit, published_on, request_moderation, state, title, views) " +
+                    "VALUES ('Аннотация', ?, 0, now(), 'Описание', ?, ?, ?, false, ?, now(), ?, " +
+                    "'PUBLISHED', 'Событие', 0) RETURNING id", Integer.class, category,
+                    Timestamp.valueOf(LocalDateTime.now().plusDays(1)), initiatorId, location, limit,
+                    requestModeration), limit);
+        }
+        return limits;
+    }
+}
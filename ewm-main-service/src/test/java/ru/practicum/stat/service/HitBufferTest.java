@@ -0,0 +1,109 @@
+package ru.practicum.stat.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.StatDto;
+import ru.practicum.assistant.OverflowPolicy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверка повторной передачи данных статистики, сброшенных на диск.
+ */
+class HitBufferTest {
+    private static final int BATCH_SIZE = 2;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    @TempDir
+    Path directory;
+    private Path spillFile;
+    private ResilientStatClient statService;
+    private HitBuffer hitBuffer;
+
+    @BeforeEach
+    void setUp() {
+        spillFile = directory.resolve("spill.ndjson");
+        statService = mock(ResilientStatClient.class);
+        hitBuffer = new HitBuffer(statService, objectMapper, mock(ApplicationEventPublisher.class),
+                new SimpleMeterRegistry(), 10, BATCH_SIZE, OverflowPolicy.SPILL, spillFile.toString());
+    }
+
+    @Test
+    void flushSkipsReplayWhileBreakerIsOpen() throws IOException {
+        List<String> lines = spill(5);
+        when(statService.isAvailable()).thenReturn(false);
+
+        hitBuffer.flush();
+
+        verify(statService, never()).addAll(anyList());
+        assertEquals(lines, Files.readAllLines(spillFile, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void flushReplaysSpillInBatches() throws IOException {
+        spill(5);
+        when(statService.isAvailable()).thenReturn(true);
+        when(statService.addAll(anyList())).thenReturn(true);
+
+        hitBuffer.flush();
+
+        assertEquals(List.of(2, 2, 1), sentBatchSizes(3));
+        assertFalse(Files.exists(spillFile));
+        assertFalse(Files.exists(Path.of(spillFile + ".replay")));
+    }
+
+    @Test
+    void flushReturnsUnsentHitsToSpill() throws IOException {
+        List<String> lines = spill(5);
+        when(statService.isAvailable()).thenReturn(true);
+        when(statService.addAll(anyList())).thenReturn(true, false);
+
+        hitBuffer.flush();
+
+        assertEquals(List.of(2, 2), sentBatchSizes(2));
+        assertEquals(lines.subList(2, 5), Files.readAllLines(spillFile, StandardCharsets.UTF_8));
+        assertFalse(Files.exists(Path.of(spillFile + ".replay")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Integer> sentBatchSizes(int calls) {
+        ArgumentCaptor<List<StatDto>> batches = ArgumentCaptor.forClass(List.class);
+        verify(statService, times(calls)).addAll(batches.capture());
+        return batches.getAllValues().stream()
+                .map(List::size)
+                .collect(Collectors.toList());
+    }
+
+    private List<String> spill(int count) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add(objectMapper.writeValueAsString(StatDto.builder()
+                    .app("ewm-main-service")
+                    .uri("/events/" + i)
+                    .ip("192.168.0.1")
+                    .timestamp("2030-01-01 12:00:00")
+                    .build()));
+        }
+        Files.write(spillFile, lines, StandardCharsets.UTF_8);
+        return lines;
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.subscription.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.assistant.SortOption;
+import ru.practicum.subscription.model.FeedItem;
+import ru.practicum.subscription.repository.SubscriptionRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверка формирования новостных лент: слияния лент с событиями организаторов,
+ * события которых выбираются при чтении ленты, и учета публикации событий.
+ */
+class FeedAssemblerTest {
+    private static final int SUBSCRIBER_ID = 1;
+    private static final int FIRST_INITIATOR_ID = 10;
+    private static final int SECOND_INITIATOR_ID = 20;
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private SubscriptionRepository subscriptionRepository;
+    private FeedAssembler feedAssembler;
+
+    @BeforeEach
+    void setUp() {
+        subscriptionRepository = mock(SubscriptionRepository.class);
+        feedAssembler = new FeedAssembler(subscriptionRepository, 3);
+    }
+
+    @Test
+    void getFeedEventIdsMergesSourcesByEventDateWithoutDuplicates() {
+        feed(SortOption.EVENT_DATE, List.of(item(1, 1, 0), item(3, 3, 0), item(5, 5, 0)));
+        pulled(SortOption.EVENT_DATE, FIRST_INITIATOR_ID, List.of(item(2, 2, 0), item(3, 3, 0), item(6, 6, 0)));
+        pulled(SortOption.EVENT_DATE, SECOND_INITIATOR_ID, List.of(item(3, 3, 0), item(4, 4, 0)));
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6),
+                feedAssembler.getFeedEventIds(SUBSCRIBER_ID, false, SortOption.EVENT_DATE, 0, 10));
+    }
+
+    @Test
+    void getFeedEventIdsSkipsOffsetAfterDeduplication() {
+        feed(SortOption.EVENT_DATE, List.of(item(1, 1, 0), item(2, 2, 0), item(4, 4, 0)));
+        pulled(SortOption.EVENT_DATE, FIRST_INITIATOR_ID, List.of(item(1, 1, 0), item(2, 2, 0), item(3, 3, 0),
+                item(5, 5, 0)));
+
+        assertEquals(List.of(3, 4),
+                feedAssembler.getFeedEventIds(SUBSCRIBER_ID, false, SortOption.EVENT_DATE, 2, 2));
+    }
+
+    @Test
+    void getFeedEventIdsOrdersByViewsAndBreaksTiesById() {
+        feed(SortOption.VIEWS, List.of(item(2, 1, 50), item(4, 2, 50), item(1, 3, 10)));
+        pulled(SortOption.VIEWS, FIRST_INITIATOR_ID, List.of(item(5, 4, 70), item(3, 5, 50), item(6, 6, 10)));
+
+        assertEquals(List.of(5, 2, 3, 4, 1, 6),
+                feedAssembler.getFeedEventIds(SUBSCRIBER_ID, false, SortOption.VIEWS, 0, 10));
+    }
+
+    @Test
+    void getFeedEventIdsPagesSingleSource() {
+        feed(SortOption.EVENT_DATE, List.of(item(1, 1, 0), item(2, 2, 0), item(3, 3, 0)));
+        when(subscriptionRepository.findPullInitiators(SUBSCRIBER_ID)).thenReturn(List.of());
+
+        assertEquals(List.of(2),
+                feedAssembler.getFeedEventIds(SUBSCRIBER_ID, false, SortOption.EVENT_DATE, 1, 1));
+    }
+
+    @Test
+    void onPublishAddsEventToFeedsBelowThreshold() {
+        when(subscriptionRepository.countByUserId(FIRST_INITIATOR_ID)).thenReturn(2L);
+
+        feedAssembler.onPublish(1, FIRST_INITIATOR_ID, START);
+
+        verify(subscriptionRepository).addToFeeds(1, FIRST_INITIATOR_ID, START);
+        verify(subscriptionRepository, never()).markPullInitiator(anyInt());
+    }
+
+    @Test
+    void onPublishMarksPullInitiatorAtThreshold() {
+        when(subscriptionRepository.countByUserId(FIRST_INITIATOR_ID)).thenReturn(3L);
+
+        feedAssembler.onPublish(1, FIRST_INITIATOR_ID, START);
+
+        verify(subscriptionRepository).markPullInitiator(FIRST_INITIATOR_ID);
+        verify(subscriptionRepository, never()).addToFeeds(anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void onPublishSkipsPullInitiator() {
+        when(subscriptionRepository.isPullInitiator(FIRST_INITIATOR_ID)).thenReturn(true);
+
+        feedAssembler.onPublish(1, FIRST_INITIATOR_ID, START);
+
+        verify(subscriptionRepository, never()).countByUserId(anyInt());
+        verify(subscriptionRepository, never()).addToFeeds(anyInt(), anyInt(), any());
+    }
+
+    private void feed(SortOption sort, List<FeedItem> items) {
+        when(subscriptionRepository.findFeedItems(eq(SUBSCRIBER_ID), anyBoolean(), eq(sort), anyLong()))
+                .thenReturn(items);
+        when(subscriptionRepository.findPullInitiators(SUBSCRIBER_ID))
+                .thenReturn(List.of(FIRST_INITIATOR_ID, SECOND_INITIATOR_ID));
+    }
+
+    private void pulled(SortOption sort, int initiatorId, List<FeedItem> items) {
+        when(subscriptionRepository.findInitiatorFeedItems(eq(initiatorId), anyBoolean(), eq(sort), anyLong()))
+                .thenReturn(items);
+    }
+
+    private static FeedItem item(int eventId, int hours, int views) {
+        return new FeedItem(eventId, START.plusHours(hours), views);
+    }
+}
@@ -0,0 +1,225 @@
+package ru.practicum.subscription.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.PostgresContainerTest;
+import ru.practicum.assistant.SortOption;
+import ru.practicum.subscription.repository.SubscriptionRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнение стоимости публикации события и чтения ленты при добавлении событий в ленты подписчиков
+ * при публикации и при выборке событий организатора во время чтения ленты для организаторов
+ * с 1 000, 10 000 и 100 000 подписчиков. Результаты выводятся в журнал вместе с точкой безубыточности:
+ * количеством чтений ленты каждым подписчиком за время жизни события в ленте, при котором дополнительная
+ * стоимость выборки при чтении сравнивается с экономией на публикации. Пока подписчики читают ленту реже,
+ * выборка при чтении выгоднее; кроме того, время публикации с добавлением в ленты растет с числом подписчиков.
+ * Для каждого количества подписчиков указан способ, выбираемый настроенным порогом feed.fan-out.follower-threshold.
+ * Запускается явно: mvn test -Dbenchmark=true.
+ */
+@Slf4j
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FeedFanOutBenchmarkTest extends PostgresContainerTest {
+    /**
+     * Количество подписчиков организаторов.
+     */
+    private static final int[] FOLLOWERS = {1_000, 10_000, 100_000};
+    /**
+     * Количество предстоящих событий каждого организатора.
+     */
+    private static final int EVENTS_PER_INITIATOR = 30;
+    /**
+     * Количество обычных организаторов, на которых подписан читатель ленты.
+     */
+    private static final int REGULAR_INITIATORS = 20;
+    /**
+     * Количество повторов замера публикации.
+     */
+    private static final int PUBLISH_RUNS = 5;
+    /**
+     * Количество повторов замера чтения ленты.
+     */
+    private static final int READ_RUNS = 50;
+    /**
+     * Размер страницы ленты.
+     */
+    private static final int PAGE = 20;
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Value("${feed.fan-out.follower-threshold:10000}")
+    private long followerThreshold;
+    /**
+     * Организаторы по количеству подписчиков.
+     */
+    private final Map<Integer, Integer> initiators = new LinkedHashMap<>();
+    /**
+     * События организаторов для замера публикации, не попадающие в ленты.
+     */
+    private final Map<Integer, Integer> unpublished = new LinkedHashMap<>();
+    /**
+     * Подписчик, подписанный на всех организаторов, чья лента читается.
+     */
+    private int reader;
+    private int category;
+    private int location;
+
+    @BeforeAll
+    void seed() {
+        category = jdbcTemplate.queryForObject("INSERT INTO category (category_name) " +
+                "VALUES ('feed-benchmark') RETURNING id", Integer.class);
+        location = jdbcTemplate.queryForObject("INSERT INTO locations (lat, lon) VALUES (55.75, 37.62) " +
+                "RETURNING id", Integer.class);
+        int maxFollowers = Arrays.stream(FOLLOWERS).max().orElseThrow();
+        jdbcTemplate.update("INSERT INTO users (user_name, user_email) " +
+                "SELECT 'feed-subscriber-' || g, 'feed-subscriber-' || g || '@mail.ru' " +
+                "FROM generate_series(1, ?) g", maxFollowers);
+        reader = jdbcTemplate.queryForObject("SELECT min(id) FROM users WHERE user_name LIKE 'feed-subscriber-%'",
+                Integer.class);
+        for (int i = 0; i < REGULAR_INITIATORS; i++) {
+            int initiator = user("feed-initiator-" + i);
+            subscribe(initiator, 1);
+            events(initiator, EVENTS_PER_INITIATOR, "PUBLISHED");
+            subscriptionRepository.addInitiatorToFeed(reader, initiator);
+        }
+        for (int followers : FOLLOWERS) {
+            int initiator = user("feed-celebrity-" + followers);
+            initiators.put(followers, initiator);
+            subscribe(initiator, followers);
+            for (int eventId : events(initiator, EVENTS_PER_INITIATOR, "PUBLISHED")) {
+                subscriptionRepository.addToFeeds(eventId, initiator, eventDate(eventId));
+            }
+            unpublished.put(followers, events(initiator, 1, "PENDING").get(0));
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void fanOutOnWriteVersusPullOnRead() {
+        FeedAssembler push = new FeedAssembler(subscriptionRepository, Long.MAX_VALUE);
+        FeedAssembler pull = new FeedAssembler(subscriptionRepository, 1);
+        StringBuilder report = new StringBuilder(String.format("%n%10s %14s %14s %14s %14s %16s %6s",
+                "followers", "publish push", "publish pull", "read push", "read pull", "break-even reads", "path"));
+        double previousPushPublish = 0;
+        for (int followers : FOLLOWERS) {
+            int initiator = initiators.get(followers);
+            int eventId = unpublished.get(followers);
+            LocalDateTime eventDate = eventDate(eventId);
+            double pushPublish = median(PUBLISH_RUNS, () ->
+                    timeRolledBack(() -> push.onPublish(eventId, initiator, eventDate)));
+            double pullPublish = median(PUBLISH_RUNS, () ->
+                    timeRolledBack(() -> pull.onPublish(eventId, initiator, eventDate)));
+            List<Integer> pushed = push.getFeedEventIds(reader, false, SortOption.EVENT_DATE, 0, PAGE);
+            double pushRead = median(READ_RUNS, () ->
+                    time(() -> push.getFeedEventIds(reader, false, SortOption.EVENT_DATE, 0, PAGE)));
+            double[] pullRead = new double[1];
+            List<Integer> pulled = transactionTemplate.execute(status -> {
+                subscriptionRepository.markPullInitiator(initiator);
+                subscriptionRepository.removeInitiatorFromFeed(reader, initiator);
+                pullRead[0] = median(READ_RUNS, () ->
+                        time(() -> pull.getFeedEventIds(reader, false, SortOption.EVENT_DATE, 0, PAGE)));
+                List<Integer> ids = pull.getFeedEventIds(reader, false, SortOption.EVENT_DATE, 0, PAGE);
+                status.setRollbackOnly();
+                return ids;
+            });
+            assertEquals(pushed, pulled);
+            double extraRead = Math.max(pullRead[0] - pushRead, 0.001);
+            double breakEven = (pushPublish - pullPublish) / (followers * extraRead);
+            report.append(String.format("%n%10d %11.2f ms %11.2f ms %11.3f ms %11.3f ms %16.2f %6s",
+                    followers, pushPublish, pullPublish, pushRead, pullRead[0], breakEven,
+                    followers >= followerThreshold ? "pull" : "push"));
+            assertTrue(pushPublish > previousPushPublish, report.toString());
+            previousPushPublish = pushPublish;
+            if (followers == Arrays.stream(FOLLOWERS).max().orElseThrow()) {
+                assertTrue(pullPublish * 10 < pushPublish, report.toString());
+            }
+        }
+        log.info("Порог подписчиков для выборки при чтении: {}.{}", followerThreshold, report);
+    }
+
+    /**
+     * Вспомогательный метод выполнения действия в транзакции с откатом.
+     * @return возвращает время выполнения действия в миллисекундах без завершения транзакции.
+     */
+    private double timeRolledBack(Runnable action) {
+        Double time = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return time(action);
+        });
+        return time == null ? 0 : time;
+    }
+
+    /**
+     * Вспомогательный метод получения медианы замеров в миллисекундах.
+     */
+    private double median(int runs, DoubleSupplier measurement) {
+        double[] times = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            times[i] = measurement.getAsDouble();
+        }
+        Arrays.sort(times);
+        return times[runs / 2];
+    }
+
+    /**
+     * Вспомогательный метод замера времени выполнения действия в миллисекундах.
+     */
+    private double time(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+
+    private int user(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO users (user_name, user_email) VALUES (?, ?) RETURNING id",
+                Integer.class, name, name + "@mail.ru");
+    }
+
+    /**
+     * Подписывает на организатора первых по идентификатору подписчиков, включая читателя ленты.
+     */
+    private void subscribe(int initiator, int followers) {
+        jdbcTemplate.update("INSERT INTO subscriptions (user_id, subscriber_id, created_on) " +
+                "SELECT ?, u.id, now() FROM users u WHERE u.user_name LIKE 'feed-subscriber-%' " +
+                "ORDER BY u.id LIMIT ?", initiator, followers);
+    }
+
+    /**
+     * Регистрирует предстоящие события организатора.
+     * @return возвращает уникальные идентификаторы событий.
+     */
+    private List<Integer> events(int initiator, int count, String state) {
+        return jdbcTemplate.queryForList("INSERT INTO events (annotation, category_id, confirmed_requests, " +
+                "created_on, description, event_date, user_id, location_id, paid, participant_limit, " +
+                "published_on, request_moderation, state, title, views) " +
+                "SELECT 'Аннотация', ?, 0, now(), 'Описание', now() + (g * 7 + ?) * interval '1 hour', ?, ?, " +
+                "false, 0, now(), true, ?, 'Событие', 0 FROM generate_series(1, ?) g RETURNING id",
+                Integer.class, category, initiator % 7, initiator, location, state, count);
+    }
+
+    private LocalDateTime eventDate(int eventId) {
+        return jdbcTemplate.queryForObject("SELECT event_date FROM events WHERE id = ?", Timestamp.class, eventId)
+                .toLocalDateTime();
+    }
+}
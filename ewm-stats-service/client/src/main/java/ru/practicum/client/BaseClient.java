@@ -5,6 +5,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
@@ -39,6 +40,11 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, null, parameters, null, response);
     }
 
+    protected <R> ResponseEntity<R> get(String path, @Nullable Map<String, Object> parameters,
+                                        ParameterizedTypeReference<R> responseType) {
+        return makeAndSendRequest(HttpMethod.GET, path, null, parameters, null, responseType);
+    }
+
     protected <T> ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, body);
     }
@@ -107,6 +113,21 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    private <T, K> ResponseEntity<K> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, ParameterizedTypeReference<K> responseType) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        ResponseEntity<K> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).build();
+        }
+        return prepareGatewayResponse(shareitServerResponse);
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
@@ -0,0 +1,81 @@
+package ru.practicum.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.MicrometerHttpRequestExecutor;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Конфигурация HTTP-клиента сервиса статистики.
+ * Соединения переиспользуются из ограниченного пула. Время ожидания соединения из пула, установки соединения
+ * и чтения ответа ограничено, простаивающие соединения закрываются в фоновом режиме.
+ */
+@Configuration
+public class HttpClientConfig {
+    /**
+     * Название пула соединений в метриках.
+     */
+    private static final String POOL_NAME = "stats-server";
+
+    /**
+     * Пул соединений с сервисом статистики.
+     * Если в приложении доступен реестр метрик, публикует количество занятых, свободных и ожидающих соединений.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PoolingHttpClientConnectionManager statConnectionManager(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${stat-server.http.max-total:50}") int maxTotal,
+            @Value("${stat-server.http.max-per-route:50}") int maxPerRoute,
+            @Value("${stat-server.http.validate-after-inactivity:2s}") Duration validateAfterInactivity) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity((int) validateAfterInactivity.toMillis());
+        meterRegistry.ifAvailable(registry ->
+                new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(registry));
+        return connectionManager;
+    }
+
+    /**
+     * HTTP-клиент сервиса статистики.
+     * Если в приложении доступен реестр метрик, публикует время выполнения запросов.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient statHttpClient(
+            PoolingHttpClientConnectionManager statConnectionManager,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${stat-server.http.connect-timeout:1s}") Duration connectTimeout,
+            @Value("${stat-server.http.read-timeout:3s}") Duration readTimeout,
+            @Value("${stat-server.http.connection-request-timeout:500ms}") Duration connectionRequestTimeout,
+            @Value("${stat-server.http.keep-alive:30s}") Duration keepAlive,
+            @Value("${stat-server.http.idle-eviction:30s}") Duration idleEviction) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis())
+                .build();
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        HttpRequestExecutor requestExecutor = registry != null
+                ? MicrometerHttpRequestExecutor.builder(registry).build()
+                : new HttpRequestExecutor();
+        return HttpClients.custom()
+                .setConnectionManager(statConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setRequestExecutor(requestExecutor)
+                .setKeepAliveStrategy((response, context) -> keepAlive.toMillis())
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEviction.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+}
@@ -0,0 +1,181 @@
+package ru.practicum.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
+import ru.practicum.StatDto;
+import ru.practicum.StatResponseDto;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static ru.practicum.service.ClientService.PATTERN;
+
+/**
+ * Неблокирующий сервис HTTP-клиента.
+ * Запросы выполняются асинхронно, результат предоставляется в виде {@link CompletableFuture},
+ * поэтому вызывающий поток не ожидает ответа сервиса статистики.
+ */
+@Service
+@Slf4j
+public class AsyncClientService {
+    /**
+     * Тип ответа на запрос статистики.
+     */
+    private static final TypeReference<List<StatResponseDto>> STATS_TYPE = new TypeReference<>() {
+    };
+    /**
+     * Адрес сервиса статистики.
+     */
+    private final String serverUrl;
+    /**
+     * Предоставляет доступ к сериализатору.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * Неблокирующий HTTP-клиент.
+     */
+    private final HttpClient httpClient;
+    /**
+     * Время ожидания ответа.
+     */
+    private final Duration readTimeout;
+    /**
+     * Форматтер времени.
+     */
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(PATTERN);
+
+    /**
+     * Конструктор сервиса.
+     */
+    public AsyncClientService(@Value("${stat-server.url}") String serverUrl,
+                              ObjectMapper objectMapper,
+                              @Value("${stat-server.http.connect-timeout:1s}") Duration connectTimeout,
+                              @Value("${stat-server.http.read-timeout:3s}") Duration readTimeout) {
+        this.serverUrl = serverUrl;
+        this.objectMapper = objectMapper;
+        this.readTimeout = readTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+
+    /**
+     * Отправляет POST запрос передавая данные подлежащие сохранению.
+     * @return возвращает сохраненные данные или завершается ошибкой {@link RestClientResponseException}.
+     */
+    public CompletableFuture<StatDto> add(StatDto statDto) {
+        log.info("Поступил асинхронный POST запрос на передачу данных подлежащих сохранению.");
+        return send(post("/hit", statDto))
+                .thenApply(response -> read(requireSuccess(response), new TypeReference<StatDto>() {
+                }));
+    }
+
+    /**
+     * Отправляет POST запрос передавая пакет данных подлежащих сохранению.
+     * @return возвращает true если сервис статистики принял пакет.
+     */
+    public CompletableFuture<Boolean> addAll(List<StatDto> statDtos) {
+        log.info("Поступил асинхронный POST запрос на передачу пакета данных подлежащих сохранению: {}.",
+                statDtos.size());
+        return send(post("/hits", statDtos))
+                .thenApply(response -> HttpStatus.valueOf(response.statusCode()).is2xxSuccessful());
+    }
+
+    /**
+     * Отправляет GET запрос передавая параметры по которым производится поиск и предоставление данных.
+     * Если approximate равен true, уникальные запросы подсчитываются приближенно по счетчикам HyperLogLog.
+     * @return возвращает список данных или завершается ошибкой {@link RestClientResponseException}
+     * если сервис статистики ответил ошибкой.
+     */
+    public CompletableFuture<List<StatResponseDto>> get(LocalDateTime start, LocalDateTime end, String[] uris,
+                                                        Boolean unique, boolean approximate) {
+        log.info("Поступил асинхронный GET запрос на передачу и возврат данных по параметрам.");
+        String query = "start=" + encode(start.format(formatter)) +
+                "&end=" + encode(end.format(formatter)) +
+                "&uris=" + encode(String.join(",", uris)) +
+                "&unique=" + unique +
+                "&accuracy=" + (approximate ? "approx" : "exact");
+        HttpRequest request = request("/stats?" + query)
+                .GET()
+                .build();
+        return send(request).thenApply(response -> read(requireSuccess(response), STATS_TYPE));
+    }
+
+    /**
+     * Вспомогательный метод формирования POST запроса с телом в формате JSON.
+     */
+    private HttpRequest post(String path, Object body) {
+        try {
+            return request(path)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Вспомогательный метод формирования запроса к сервису статистики.
+     */
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(serverUrl + path))
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .timeout(readTimeout);
+    }
+
+    /**
+     * Вспомогательный метод асинхронной отправки запроса.
+     */
+    private CompletableFuture<HttpResponse<byte[]>> send(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Вспомогательный метод проверки успешности ответа.
+     */
+    private HttpResponse<byte[]> requireSuccess(HttpResponse<byte[]> response) {
+        HttpStatus status = HttpStatus.valueOf(response.statusCode());
+        if (!status.is2xxSuccessful()) {
+            throw new RestClientResponseException("Сервис статистики ответил ошибкой.", status.value(),
+                    status.getReasonPhrase(), null, response.body(), StandardCharsets.UTF_8);
+        }
+        return response;
+    }
+
+    /**
+     * Вспомогательный метод чтения тела ответа.
+     */
+    private <T> T read(HttpResponse<byte[]> response, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(response.body(), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Вспомогательный метод кодирования значения параметра запроса.
+     */
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
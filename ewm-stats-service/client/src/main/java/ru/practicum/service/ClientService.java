@@ -1,9 +1,11 @@
 package ru.practicum.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
@@ -11,10 +13,10 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.StatDto;
 import ru.practicum.StatResponseDto;
 import ru.practicum.client.BaseClient;
+import ru.practicum.client.HttpClientConfig;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -36,15 +38,23 @@ public class ClientService extends BaseClient {
      * Форматтер времени.
      */
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(PATTERN);
+    /**
+     * Тип ответа на запрос статистики.
+     */
+    private static final ParameterizedTypeReference<List<StatResponseDto>> STATS_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
 
     /**
      * Конструктор сервиса.
+     * Запросы выполняются через HTTP-клиент с пулом соединений, настроенный в {@link HttpClientConfig}.
      */
     @Autowired
-    public ClientService(@Value("${stat-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ClientService(@Value("${stat-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         CloseableHttpClient statHttpClient) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(statHttpClient))
                 .build());
     }
 
@@ -57,15 +67,36 @@ public class ClientService extends BaseClient {
         return response.getBody();
     }
 
+    /**
+     * Отправляет POST запрос передавая пакет данных подлежащих сохранению.
+     * @return возвращает true если сервис статистики принял пакет.
+     */
+    public boolean addAll(List<StatDto> statDtos) {
+        log.info("Поступил POST запрос на передачу пакета данных подлежащих сохранению: {}.", statDtos.size());
+        ResponseEntity<Object> response = post("/hits", statDtos, new Object());
+        return response.getStatusCode().is2xxSuccessful();
+    }
+
     /**
      * Отправляет GET запрос передавая параметры по которым производится поиск и предоставление данных.
      */
     public List<StatResponseDto> get(LocalDateTime start, LocalDateTime end, String[] uris, Boolean unique) {
+        return get(start, end, uris, unique, false);
+    }
+
+    /**
+     * Отправляет GET запрос передавая параметры по которым производится поиск и предоставление данных.
+     * Если approximate равен true, уникальные запросы подсчитываются приближенно по счетчикам HyperLogLog.
+     * @return возвращает список данных или пустой список если сервис статистики ответил ошибкой.
+     */
+    public List<StatResponseDto> get(LocalDateTime start, LocalDateTime end, String[] uris, Boolean unique,
+                                     boolean approximate) {
         log.info("Поступил GET запрос на передачу и возврат данных по параметрам.");
         Map<String, Object> parameters = Map.of("start", start.format(formatter), "end", end.format(formatter),
-                "uris", uris, "unique", unique);
-        ResponseEntity<ArrayList<StatResponseDto>> response
-                = get("/stats?start={start}&end={end}&uris={uris}&unique={unique}", parameters, new ArrayList<>());
-        return response.getBody();
+                "uris", uris, "unique", unique, "accuracy", approximate ? "approx" : "exact");
+        ResponseEntity<List<StatResponseDto>> response
+                = get("/stats?start={start}&end={end}&uris={uris}&unique={unique}&accuracy={accuracy}",
+                parameters, STATS_TYPE);
+        return response.getBody() != null ? response.getBody() : List.of();
     }
 }
@@ -3,11 +3,14 @@ package ru.practicum.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.StatDto;
 import ru.practicum.StatResponseDto;
 import ru.practicum.service.StatService;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -36,8 +39,30 @@ public class StatController {
         return service.add(statDto);
     }
 
+    /**
+     * Обрабатывает запросы на пакетное сохранение статистических данных.
+     * Возвращает код 201.
+     */
+    @PostMapping(value = "/hits", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public void addAll(@RequestBody List<StatDto> statDtos) {
+        service.addAll(statDtos);
+    }
+
+    /**
+     * Обрабатывает запросы на потоковое сохранение статистических данных в формате NDJSON.
+     * Возвращает код 201.
+     */
+    @PostMapping(value = "/hits", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public void addAll(HttpServletRequest request) throws IOException {
+        service.addAll(request.getInputStream());
+    }
+
     /**
      * Обрабатывает запросы предоставления данных.
+     * Параметр accuracy=approx включает приближенный подсчет уникальных запросов
+     * со стандартной ошибкой около 2.3%, см. {@link ru.practicum.sketch.HyperLogLog}.
      * Возвращает код 200.
      */
     @GetMapping("/stats")
@@ -45,7 +70,8 @@ public class StatController {
     public List<StatResponseDto> get(@RequestParam @DateTimeFormat(pattern = PATTERN) LocalDateTime start,
                                      @RequestParam @DateTimeFormat(pattern = PATTERN) LocalDateTime end,
                                      @RequestParam (required = false) String[] uris,
-                                     @RequestParam (defaultValue = "false") Boolean unique) {
-        return service.get(start, end, uris, unique);
+                                     @RequestParam (defaultValue = "false") Boolean unique,
+                                     @RequestParam (defaultValue = "exact") String accuracy) {
+        return service.get(start, end, uris, unique, accuracy);
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ru.practicum.model;
+
+/**
+ * Класс перечислений вариантов точности подсчета уникальных запросов.
+ */
+public enum Accuracy {
+    /**
+     * Точный подсчет по исходным данным.
+     */
+    EXACT,
+    /**
+     * Приближенный подсчет по почасовым счетчикам HyperLogLog.
+     */
+    APPROX
+}
@@ -0,0 +1,15 @@
+package ru.practicum.repository;
+
+import ru.practicum.model.Stat;
+
+import java.util.List;
+
+/**
+ * Репозиторий пакетного сохранения статистических данных.
+ */
+public interface StatBatchRepository {
+    /**
+     * Сохраняет список данных одной командой COPY без возврата сгенерированных идентификаторов.
+     */
+    void insertAll(List<Stat> stats);
+}
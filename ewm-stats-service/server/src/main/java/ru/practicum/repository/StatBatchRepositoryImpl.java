@@ -0,0 +1,66 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.model.Stat;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Реализация репозитория пакетного сохранения статистических данных.
+ * Передает записи командой COPY в формате CSV через {@link org.postgresql.copy.CopyManager},
+ * поэтому не выполняет отдельного запроса на каждую запись и не извлекает сгенерированные идентификаторы.
+ */
+@RequiredArgsConstructor
+public class StatBatchRepositoryImpl implements StatBatchRepository {
+    /**
+     * Команда загрузки записей.
+     */
+    private static final String COPY = "COPY stats (app_name, uri_address, ip_address, time_request) " +
+            "FROM STDIN WITH (FORMAT csv)";
+    /**
+     * Предоставляет доступ к JDBC.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Stat> stats) {
+        if (stats.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY);
+            try {
+                for (Stat stat : stats) {
+                    byte[] row = row(stat).getBytes(StandardCharsets.UTF_8);
+                    copyIn.writeToCopy(row, 0, row.length);
+                }
+                return copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        });
+    }
+
+    /**
+     * Вспомогательный метод формирования строки CSV из записи.
+     */
+    private String row(Stat stat) {
+        return quote(stat.getApp()) + ',' + quote(stat.getUri()) + ',' + quote(stat.getIp()) + ',' +
+                Timestamp.valueOf(stat.getTimestamp()) + '\n';
+    }
+
+    /**
+     * Вспомогательный метод экранирования значения CSV.
+     */
+    private String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
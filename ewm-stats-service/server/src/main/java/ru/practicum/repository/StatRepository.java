@@ -12,7 +12,8 @@ import java.util.List;
 /**
  * Репозиторий статистических данных.
  */
-public interface StatRepository extends JpaRepository<Stat, Long> {
+public interface StatRepository extends JpaRepository<Stat, Long>, StatBatchRepository,
+        StatRollupRepository {
     /**
      * Возвращает все данные без учета идентификатора ресурса, преобразовывает в {@link StatResponse}.
      */
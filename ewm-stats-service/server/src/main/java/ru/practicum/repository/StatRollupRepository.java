@@ -0,0 +1,45 @@
+package ru.practicum.repository;
+
+import ru.practicum.model.Stat;
+import ru.practicum.model.StatResponse;
+import ru.practicum.sketch.HyperLogLog;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Репозиторий почасовых агрегатов статистических данных.
+ */
+public interface StatRollupRepository {
+    /**
+     * Увеличивает почасовые агрегаты на количество запросов из списка
+     * и добавляет IP адреса в почасовые счетчики уникальных значений.
+     */
+    void addToRollups(List<Stat> stats);
+
+    /**
+     * Возвращает количество запросов из почасовых агрегатов с началом часа в интервале [from, to).
+     * Если список идентификаторов ресурса пуст, возвращает данные по всем ресурсам.
+     */
+    List<StatResponse> getRollupStat(LocalDateTime from, LocalDateTime to, String[] uris);
+
+    /**
+     * Возвращает количество запросов из исходных данных в интервале [from, to) или [from, to]
+     * в зависимости от параметра toInclusive.
+     */
+    List<StatResponse> getRawStat(LocalDateTime from, LocalDateTime to, boolean toInclusive, String[] uris);
+
+    /**
+     * Возвращает объединенные счетчики уникальных IP адресов из почасовых агрегатов
+     * с началом часа в интервале [from, to), ключ - название приложения и идентификатор ресурса.
+     */
+    Map<List<String>, HyperLogLog> getRollupSketches(LocalDateTime from, LocalDateTime to, String[] uris);
+
+    /**
+     * Возвращает счетчики уникальных IP адресов, построенные по исходным данным в интервале [from, to)
+     * или [from, to] в зависимости от параметра toInclusive.
+     */
+    Map<List<String>, HyperLogLog> getRawSketches(LocalDateTime from, LocalDateTime to, boolean toInclusive,
+                                                  String[] uris);
+}
@@ -0,0 +1,194 @@
+package ru.practicum.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.model.Stat;
+import ru.practicum.model.StatResponse;
+import ru.practicum.sketch.HyperLogLog;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Реализация репозитория почасовых агрегатов статистических данных.
+ * Агрегаты обновляются инкрементально при каждом сохранении данных.
+ */
+@RequiredArgsConstructor
+public class StatRollupRepositoryImpl implements StatRollupRepository {
+    /**
+     * Размер интервала агрегации.
+     */
+    public static final ChronoUnit BUCKET = ChronoUnit.HOURS;
+    /**
+     * Запрос на увеличение агрегата.
+     */
+    private static final String UPSERT = "INSERT INTO stats_hourly (app_name, uri_address, bucket, hits) " +
+            "VALUES (:app, :uri, :bucket, :hits) " +
+            "ON CONFLICT (app_name, uri_address, bucket) DO UPDATE SET hits = stats_hourly.hits + EXCLUDED.hits";
+    /**
+     * Запрос счетчиков уникальных значений обновляемых агрегатов с блокировкой строк.
+     */
+    private static final String SELECT_SKETCHES = "SELECT app_name, uri_address, bucket, sketch " +
+            "FROM stats_hourly " +
+            "WHERE (app_name, uri_address, bucket) IN (:keys) " +
+            "ORDER BY app_name, uri_address, bucket " +
+            "FOR UPDATE";
+    /**
+     * Запрос на обновление счетчика уникальных значений агрегата.
+     */
+    private static final String UPDATE_SKETCH = "UPDATE stats_hourly SET sketch = :sketch " +
+            "WHERE app_name = :app AND uri_address = :uri AND bucket = :bucket";
+    /**
+     * Запрос суммы агрегатов.
+     */
+    private static final String ROLLUP = "SELECT app_name, uri_address, SUM(hits) AS hits " +
+            "FROM stats_hourly " +
+            "WHERE bucket >= :from AND bucket < :to ";
+    /**
+     * Запрос количества исходных данных.
+     */
+    private static final String RAW = "SELECT app_name, uri_address, COUNT(ip_address) AS hits " +
+            "FROM stats " +
+            "WHERE time_request >= :from ";
+    /**
+     * Запрос счетчиков уникальных значений агрегатов.
+     */
+    private static final String ROLLUP_SKETCHES = "SELECT app_name, uri_address, sketch " +
+            "FROM stats_hourly " +
+            "WHERE bucket >= :from AND bucket < :to ";
+    /**
+     * Запрос уникальных IP адресов исходных данных.
+     */
+    private static final String RAW_IPS = "SELECT DISTINCT app_name, uri_address, ip_address " +
+            "FROM stats " +
+            "WHERE time_request >= :from ";
+    /**
+     * Условие по идентификаторам ресурса.
+     */
+    private static final String BY_URIS = "AND uri_address IN (:uris) ";
+    /**
+     * Группировка результата.
+     */
+    private static final String GROUP = "GROUP BY app_name, uri_address";
+    /**
+     * Предоставляет доступ к JDBC.
+     */
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addToRollups(List<Stat> stats) {
+        if (stats.isEmpty()) {
+            return;
+        }
+        Map<List<Object>, Long> increments = new TreeMap<>(Comparator
+                .comparing((List<Object> key) -> (String) key.get(0))
+                .thenComparing(key -> (String) key.get(1))
+                .thenComparing(key -> (LocalDateTime) key.get(2)));
+        Map<List<Object>, HyperLogLog> sketches = new HashMap<>();
+        for (Stat stat : stats) {
+            List<Object> key = List.of(stat.getApp(), stat.getUri(), stat.getTimestamp().truncatedTo(BUCKET));
+            increments.merge(key, 1L, Long::sum);
+            sketches.computeIfAbsent(key, k -> new HyperLogLog()).offer(stat.getIp());
+        }
+        jdbcTemplate.batchUpdate(UPSERT, increments.entrySet().stream()
+                .map(entry -> keyParameters(entry.getKey()).addValue("hits", entry.getValue()))
+                .toArray(MapSqlParameterSource[]::new));
+        List<Object[]> keys = increments.keySet().stream()
+                .map(key -> new Object[]{key.get(0), key.get(1), Timestamp.valueOf((LocalDateTime) key.get(2))})
+                .collect(Collectors.toList());
+        jdbcTemplate.query(SELECT_SKETCHES, new MapSqlParameterSource("keys", keys), resultSet -> {
+            List<Object> key = List.of(resultSet.getString("app_name"), resultSet.getString("uri_address"),
+                    resultSet.getTimestamp("bucket").toLocalDateTime());
+            HyperLogLog stored = HyperLogLog.fromBytes(resultSet.getBytes("sketch"));
+            sketches.computeIfPresent(key, (k, sketch) -> sketch.merge(stored));
+        });
+        jdbcTemplate.batchUpdate(UPDATE_SKETCH, increments.keySet().stream()
+                .map(key -> keyParameters(key).addValue("sketch", sketches.get(key).toBytes()))
+                .toArray(MapSqlParameterSource[]::new));
+    }
+
+    @Override
+    public List<StatResponse> getRollupStat(LocalDateTime from, LocalDateTime to, String[] uris) {
+        MapSqlParameterSource parameters = rangeParameters(from, to, uris);
+        return jdbcTemplate.query(byUris(ROLLUP, uris) + GROUP, parameters, (resultSet, rowNum) ->
+                new StatResponse(resultSet.getString("app_name"), resultSet.getString("uri_address"),
+                        resultSet.getLong("hits")));
+    }
+
+    @Override
+    public List<StatResponse> getRawStat(LocalDateTime from, LocalDateTime to, boolean toInclusive, String[] uris) {
+        MapSqlParameterSource parameters = rangeParameters(from, to, uris);
+        return jdbcTemplate.query(byUris(RAW + upperBound(toInclusive), uris) + GROUP, parameters,
+                (resultSet, rowNum) -> new StatResponse(resultSet.getString("app_name"),
+                        resultSet.getString("uri_address"), resultSet.getLong("hits")));
+    }
+
+    @Override
+    public Map<List<String>, HyperLogLog> getRollupSketches(LocalDateTime from, LocalDateTime to, String[] uris) {
+        Map<List<String>, HyperLogLog> sketches = new HashMap<>();
+        jdbcTemplate.query(byUris(ROLLUP_SKETCHES, uris), rangeParameters(from, to, uris), resultSet -> {
+            sketches.computeIfAbsent(List.of(resultSet.getString("app_name"), resultSet.getString("uri_address")),
+                    key -> new HyperLogLog()).merge(HyperLogLog.fromBytes(resultSet.getBytes("sketch")));
+        });
+        return sketches;
+    }
+
+    @Override
+    public Map<List<String>, HyperLogLog> getRawSketches(LocalDateTime from, LocalDateTime to, boolean toInclusive,
+                                                         String[] uris) {
+        Map<List<String>, HyperLogLog> sketches = new HashMap<>();
+        jdbcTemplate.query(byUris(RAW_IPS + upperBound(toInclusive), uris), rangeParameters(from, to, uris),
+                resultSet -> {
+                    sketches.computeIfAbsent(List.of(resultSet.getString("app_name"),
+                            resultSet.getString("uri_address")), key -> new HyperLogLog())
+                            .offer(resultSet.getString("ip_address"));
+                });
+        return sketches;
+    }
+
+    /**
+     * Вспомогательный метод формирования параметров ключа агрегата.
+     */
+    private MapSqlParameterSource keyParameters(List<Object> key) {
+        return new MapSqlParameterSource()
+                .addValue("app", key.get(0))
+                .addValue("uri", key.get(1))
+                .addValue("bucket", Timestamp.valueOf((LocalDateTime) key.get(2)));
+    }
+
+    /**
+     * Вспомогательный метод формирования параметров интервала и идентификаторов ресурса.
+     */
+    private MapSqlParameterSource rangeParameters(LocalDateTime from, LocalDateTime to, String[] uris) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to));
+        if (uris != null && uris.length != 0) {
+            parameters.addValue("uris", Arrays.asList(uris));
+        }
+        return parameters;
+    }
+
+    /**
+     * Вспомогательный метод добавления условия по идентификаторам ресурса.
+     */
+    private String byUris(String sql, String[] uris) {
+        return uris != null && uris.length != 0 ? sql + BY_URIS : sql;
+    }
+
+    /**
+     * Вспомогательный метод формирования верхней границы интервала исходных данных.
+     */
+    private String upperBound(boolean toInclusive) {
+        return toInclusive ? "AND time_request <= :to " : "AND time_request < :to ";
+    }
+}
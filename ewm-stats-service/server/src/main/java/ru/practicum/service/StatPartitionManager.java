@@ -0,0 +1,145 @@
+package ru.practicum.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Обслуживание помесячных секций таблицы статистических данных.
+ * Заранее создает секции на ближайшие месяцы и удаляет секции старше срока хранения целиком,
+ * без построчного удаления данных. Данные, попавшие в секцию по умолчанию до создания секции месяца,
+ * переносятся в секцию месяца при ее создании, иначе они не удалялись бы по сроку хранения.
+ */
+@Component
+@Slf4j
+public class StatPartitionManager {
+    /**
+     * Префикс названия секции.
+     */
+    private static final String PREFIX = "stats_";
+    /**
+     * Формат месяца в названии секции.
+     */
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+    /**
+     * Запрос списка секций таблицы.
+     */
+    private static final String PARTITIONS = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'stats'";
+    /**
+     * Секция по умолчанию.
+     */
+    private static final String DEFAULT_PARTITION = "stats_default";
+    /**
+     * Предоставляет доступ к JDBC.
+     */
+    private final JdbcTemplate jdbcTemplate;
+    /**
+     * Предоставляет транзакции создания секций.
+     */
+    private final TransactionTemplate transactionTemplate;
+    /**
+     * Количество месяцев, на которые секции создаются заранее.
+     */
+    private final int monthsAhead;
+    /**
+     * Срок хранения исходных данных в месяцах.
+     */
+    private final int retentionMonths;
+
+    public StatPartitionManager(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${stats.partition.months-ahead:2}") int monthsAhead,
+                                @Value("${stats.retention.months:13}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * Создает недостающие секции и удаляет устаревшие.
+     * Выполняется при запуске и далее по расписанию.
+     */
+    @PostConstruct
+    @Scheduled(cron = "${stats.partition.cron:0 0 3 * * *}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        YearMonth oldest = current.minusMonths(retentionMonths);
+        for (String partition : jdbcTemplate.queryForList(PARTITIONS, String.class)) {
+            YearMonth month = parseMonth(partition);
+            if (month != null && month.isBefore(oldest)) {
+                log.info("Удаляется устаревшая секция статистики: {}.", partition);
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+            }
+        }
+    }
+
+    /**
+     * Вспомогательный метод создания секции на месяц.
+     * PostgreSQL не создает секцию, если секция по умолчанию содержит данные из ее диапазона, поэтому
+     * в одной транзакции секция по умолчанию отсоединяется, создается секция месяца, в нее переносятся
+     * данные месяца из секции по умолчанию, и секция по умолчанию присоединяется обратно.
+     * @param month месяц секции.
+     */
+    private void createPartition(YearMonth month) {
+        String partition = PREFIX + month.format(MONTH);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL",
+                Boolean.class, partition))) {
+            return;
+        }
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        try {
+            Integer moved = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("ALTER TABLE stats DETACH PARTITION " + DEFAULT_PARTITION);
+                jdbcTemplate.execute(String.format("CREATE TABLE %s PARTITION OF stats " +
+                        "FOR VALUES FROM ('%s') TO ('%s')", partition, from, to));
+                int count = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " " +
+                        "WHERE time_request >= ? AND time_request < ? " +
+                        "RETURNING id, app_name, uri_address, ip_address, time_request) " +
+                        "INSERT INTO stats (id, app_name, uri_address, ip_address, time_request) " +
+                        "SELECT id, app_name, uri_address, ip_address, time_request FROM moved",
+                        from.atStartOfDay(), to.atStartOfDay());
+                jdbcTemplate.execute("ALTER TABLE stats ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+                return count;
+            });
+            if (moved != null && moved > 0) {
+                log.info("В секцию статистики {} перенесено записей из секции по умолчанию: {}.", partition, moved);
+            }
+        } catch (DataAccessException e) {
+            log.error("Не удалось создать секцию статистики за {}. {}", month, e.getMessage());
+        }
+    }
+
+    /**
+     * Вспомогательный метод определения месяца секции по ее названию.
+     * @param partition название секции.
+     * @return возвращает месяц секции или null если секция не помесячная.
+     */
+    private YearMonth parseMonth(String partition) {
+        if (!partition.startsWith(PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PREFIX.length()), MONTH);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
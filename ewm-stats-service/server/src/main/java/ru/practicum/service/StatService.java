@@ -3,6 +3,7 @@ package ru.practicum.service;
 import ru.practicum.StatDto;
 import ru.practicum.StatResponseDto;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -12,5 +13,9 @@ import java.util.List;
 public interface StatService {
     StatDto add(StatDto statDto);
 
-    List<StatResponseDto> get(LocalDateTime start, LocalDateTime end, String[] uris, Boolean unique);
+    void addAll(List<StatDto> statDtos);
+
+    int addAll(InputStream stream);
+
+    List<StatResponseDto> get(LocalDateTime start, LocalDateTime end, String[] uris, Boolean unique, String accuracy);
 }
@@ -1,18 +1,34 @@
 package ru.practicum.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import ru.practicum.StatDto;
 import ru.practicum.StatResponseDto;
 import ru.practicum.exception.model.ValidationException;
 import ru.practicum.mapper.StatMapper;
+import ru.practicum.model.Accuracy;
 import ru.practicum.model.Stat;
+import ru.practicum.model.StatResponse;
 import ru.practicum.repository.StatRepository;
+import ru.practicum.repository.StatRollupRepositoryImpl;
+import ru.practicum.sketch.HyperLogLog;
 
 import javax.transaction.Transactional;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +46,15 @@ public class StatServiceImpl implements StatService {
      * Предоставляет доступ к {@link StatMapper}.
      */
     private final StatMapper mapper;
+    /**
+     * Предоставляет доступ к десериализатору потоковых данных.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * Размер пакета вставки.
+     */
+    @Value("${stats.batch-size:1000}")
+    private int batchSize;
 
     /**
      * Принимает DTO-объект, конвертирует в {@link Stat} и сохраняет в базу данных.
@@ -39,8 +64,65 @@ public class StatServiceImpl implements StatService {
     @Transactional
     public StatDto add(StatDto statDto) {
         log.info("Поступил запрос на сохранение данных.");
+        Stat stat = statRepository.save(mapper.toStat(statDto));
+        statRepository.addToRollups(List.of(stat));
         log.info("Данные успешно сохранены.");
-        return mapper.toStatDto(statRepository.save(mapper.toStat(statDto)));
+        return mapper.toStatDto(stat);
+    }
+
+    /**
+     * Принимает список DTO-объектов, конвертирует в {@link Stat} и сохраняет в базу данных пакетами.
+     * @param statDtos список принимаемых DTO-объектов.
+     */
+    @Override
+    @Transactional
+    public void addAll(List<StatDto> statDtos) {
+        log.info("Поступил запрос на пакетное сохранение данных: {}.", statDtos.size());
+        for (int i = 0; i < statDtos.size(); i += batchSize) {
+            insertAll(statDtos.subList(i, Math.min(i + batchSize, statDtos.size())).stream()
+                    .map(mapper::toStat)
+                    .collect(Collectors.toList()));
+        }
+        log.info("Данные успешно сохранены.");
+    }
+
+    /**
+     * Принимает поток DTO-объектов в формате NDJSON и сохраняет в базу данных пакетами по мере чтения,
+     * не загружая весь поток в память.
+     * Генерирует {@link ValidationException} если одна из строк потока некорректна.
+     * @param stream поток DTO-объектов, по одному объекту в строке.
+     * @return возвращает количество сохраненных записей.
+     */
+    @Override
+    @Transactional
+    public int addAll(InputStream stream) {
+        log.info("Поступил запрос на потоковое сохранение данных.");
+        int count = 0;
+        List<Stat> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(mapper.toStat(objectMapper.readValue(line, StatDto.class)));
+                if (batch.size() == batchSize) {
+                    insertAll(batch);
+                    count += batch.size();
+                    batch.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Некорректная строка в потоке данных: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new ValidationException("Не удалось прочитать поток данных: " + e.getMessage());
+        }
+        if (!batch.isEmpty()) {
+            insertAll(batch);
+            count += batch.size();
+        }
+        log.info("Данные успешно сохранены: {}.", count);
+        return count;
     }
 
     /**
@@ -49,21 +131,117 @@ public class StatServiceImpl implements StatService {
      * @param end конечное время запроса.
      * @param uris массив идентификаторов ресурса запроса.
      * @param unique уникальность данных в списке возврата.
+     * @param accuracy точность подсчета уникальных данных в формате {@link Accuracy}.
      */
     @Override
-    public List<StatResponseDto> get(LocalDateTime start, LocalDateTime end, String[] uris, Boolean unique) {
+    public List<StatResponseDto> get(LocalDateTime start, LocalDateTime end, String[] uris, Boolean unique,
+                                     String accuracy) {
         log.info("Поступил запрос на предоставление статистики.");
         if (end.isBefore(start)) {
             throw new ValidationException("Конечное время не может быть раньше начального.");
         }
+        Accuracy mode;
+        try {
+            mode = Accuracy.valueOf(accuracy.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Точность подсчета указана некорректно.");
+        }
+        List<StatResponse> stats;
+        if (unique && mode.equals(Accuracy.APPROX)) {
+            stats = getUniqueFromSketches(start, end, uris);
+        } else if (unique) {
+            stats = uris == null || uris.length == 0 ? statRepository.getUniqueStat(start, end)
+                    : statRepository.getUniqueStatWithUri(start, end, uris);
+        } else {
+            stats = getFromRollups(start, end, uris);
+        }
         log.info("Данные успешно предоставлены.");
-        return (uris == null || uris.length == 0 ?
-                (unique ? statRepository.getUniqueStat(start, end)
-                        : statRepository.getAllStat(start, end))
-                : (unique ? statRepository.getUniqueStatWithUri(start, end, uris)
-                : statRepository.getAllStatWithUri(start, end, uris)))
-                .stream()
+        return stats.stream()
                 .map(mapper::toStatResponseDto)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    /**
+     * Вспомогательный метод сохранения пакета данных с обновлением почасовых агрегатов.
+     * @param stats пакет данных в формате {@link Stat}.
+     */
+    private void insertAll(List<Stat> stats) {
+        statRepository.insertAll(stats);
+        statRepository.addToRollups(stats);
+    }
+
+    /**
+     * Вспомогательный метод подсчета количества запросов по почасовым агрегатам.
+     * Полные часы внутри интервала берутся из агрегатов, неполные часы на границах интервала
+     * досчитываются по исходным данным.
+     * @param start начальное время запроса.
+     * @param end конечное время запроса включительно.
+     * @param uris массив идентификаторов ресурса запроса.
+     * @return возвращает список отсортированный по убыванию количества запросов.
+     */
+    private List<StatResponse> getFromRollups(LocalDateTime start, LocalDateTime end, String[] uris) {
+        LocalDateTime firstBucket = firstBucket(start);
+        LocalDateTime lastBucket = end.truncatedTo(StatRollupRepositoryImpl.BUCKET);
+        if (!firstBucket.isBefore(lastBucket)) {
+            return statRepository.getRawStat(start, end, true, uris).stream()
+                    .sorted(Comparator.comparingLong(StatResponse::getHits).reversed())
+                    .collect(Collectors.toList());
+        }
+        Map<List<String>, StatResponse> merged = new HashMap<>();
+        List<StatResponse> parts = new ArrayList<>(statRepository.getRollupStat(firstBucket, lastBucket, uris));
+        if (start.isBefore(firstBucket)) {
+            parts.addAll(statRepository.getRawStat(start, firstBucket, false, uris));
+        }
+        parts.addAll(statRepository.getRawStat(lastBucket, end, true, uris));
+        for (StatResponse part : parts) {
+            merged.merge(List.of(part.getApp(), part.getUri()), part, (left, right) ->
+                    new StatResponse(left.getApp(), left.getUri(), left.getHits() + right.getHits()));
+        }
+        return merged.values().stream()
+                .sorted(Comparator.comparingLong(StatResponse::getHits).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Вспомогательный метод приближенного подсчета уникальных запросов по почасовым счетчикам HyperLogLog.
+     * Полные часы внутри интервала берутся из счетчиков агрегатов, неполные часы на границах интервала
+     * досчитываются по исходным данным.
+     * @param start начальное время запроса.
+     * @param end конечное время запроса включительно.
+     * @param uris массив идентификаторов ресурса запроса.
+     * @return возвращает список отсортированный по убыванию количества запросов.
+     */
+    private List<StatResponse> getUniqueFromSketches(LocalDateTime start, LocalDateTime end, String[] uris) {
+        LocalDateTime firstBucket = firstBucket(start);
+        LocalDateTime lastBucket = end.truncatedTo(StatRollupRepositoryImpl.BUCKET);
+        Map<List<String>, HyperLogLog> sketches;
+        if (!firstBucket.isBefore(lastBucket)) {
+            sketches = statRepository.getRawSketches(start, end, true, uris);
+        } else {
+            sketches = statRepository.getRollupSketches(firstBucket, lastBucket, uris);
+            List<Map<List<String>, HyperLogLog>> edges = new ArrayList<>();
+            if (start.isBefore(firstBucket)) {
+                edges.add(statRepository.getRawSketches(start, firstBucket, false, uris));
+            }
+            edges.add(statRepository.getRawSketches(lastBucket, end, true, uris));
+            for (Map<List<String>, HyperLogLog> edge : edges) {
+                edge.forEach((key, sketch) -> sketches.merge(key, sketch, HyperLogLog::merge));
+            }
+        }
+        return sketches.entrySet().stream()
+                .map(entry -> new StatResponse(entry.getKey().get(0), entry.getKey().get(1),
+                        entry.getValue().cardinality()))
+                .sorted(Comparator.comparingLong(StatResponse::getHits).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Вспомогательный метод определения начала первого полного часа интервала.
+     * @param start начальное время запроса.
+     * @return возвращает начало часа, не раньше начального времени.
+     */
+    private LocalDateTime firstBucket(LocalDateTime start) {
+        LocalDateTime firstBucket = start.truncatedTo(StatRollupRepositoryImpl.BUCKET);
+        return firstBucket.isBefore(start) ? firstBucket.plus(1, StatRollupRepositoryImpl.BUCKET) : firstBucket;
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.sketch;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Вероятностный счетчик количества уникальных значений (HyperLogLog).
+ * Использует 2^11 = 2048 регистров, стандартная ошибка оценки составляет 1.04 / sqrt(2048) ≈ 2.3%.
+ * Для малых количеств применяется линейный подсчет, поэтому оценка для десятков и сотен значений практически точна.
+ * Счетчики объединяются без потерь, что позволяет хранить их по интервалам времени и суммировать при запросе.
+ */
+public class HyperLogLog {
+    /**
+     * Количество бит хеша, определяющих номер регистра.
+     */
+    public static final int PRECISION = 11;
+    /**
+     * Количество регистров.
+     */
+    public static final int REGISTERS = 1 << PRECISION;
+    /**
+     * Стандартная относительная ошибка оценки.
+     */
+    public static final double STANDARD_ERROR = 1.04 / Math.sqrt(REGISTERS);
+    /**
+     * Признак плотного формата хранения: значения всех регистров подряд.
+     */
+    private static final byte DENSE = 0;
+    /**
+     * Признак разреженного формата хранения: пары номер регистра и значение для ненулевых регистров.
+     */
+    private static final byte SPARSE = 1;
+    /**
+     * Поправочный коэффициент оценки для выбранного количества регистров.
+     */
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+    /**
+     * Значения регистров.
+     */
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    /**
+     * Учитывает значение в счетчике.
+     */
+    public void offer(String value) {
+        long hash = hash(value.getBytes(StandardCharsets.UTF_8));
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        if (registers[index] < rank) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Объединяет счетчик с другим счетчиком.
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (registers[i] < other.registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Возвращает оценку количества уникальных значений.
+     */
+    public long cardinality() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros != 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Сериализует счетчик, выбирая наиболее компактный формат.
+     */
+    public byte[] toBytes() {
+        int nonZero = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                nonZero++;
+            }
+        }
+        if (nonZero * 3 < REGISTERS) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 + nonZero * 3).put(SPARSE);
+            for (int i = 0; i < REGISTERS; i++) {
+                if (registers[i] != 0) {
+                    buffer.putShort((short) i).put(registers[i]);
+                }
+            }
+            return buffer.array();
+        }
+        return ByteBuffer.allocate(1 + REGISTERS).put(DENSE).put(registers).array();
+    }
+
+    /**
+     * Восстанавливает счетчик из сериализованного представления.
+     * Пустое представление соответствует пустому счетчику.
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        HyperLogLog sketch = new HyperLogLog();
+        if (bytes == null || bytes.length == 0) {
+            return sketch;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.get() == DENSE) {
+            buffer.get(sketch.registers);
+        } else {
+            while (buffer.hasRemaining()) {
+                sketch.registers[buffer.getShort()] = buffer.get();
+            }
+        }
+        return sketch;
+    }
+
+    /**
+     * Вспомогательный метод 64-битного хеширования: FNV-1a с финальным перемешиванием MurmurHash3.
+     */
+    private static long hash(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe1a85ec3L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -1,4 +1,5 @@
 DROP TABLE IF EXISTS stats CASCADE;
+DROP TABLE IF EXISTS stats_hourly CASCADE;
 
 CREATE TABLE IF NOT EXISTS stats (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -6,5 +7,26 @@ CREATE TABLE IF NOT EXISTS stats (
   uri_address VARCHAR(512) NOT NULL,
   ip_address VARCHAR(512) NOT NULL,
   time_request TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-  CONSTRAINT pk_stat_id PRIMARY KEY (id)
-);
\ No newline at end of file
+  CONSTRAINT pk_stat_id PRIMARY KEY (id, time_request)
+) PARTITION BY RANGE (time_request);
+
+CREATE TABLE IF NOT EXISTS stats_default PARTITION OF stats DEFAULT;
+
+CREATE INDEX IF NOT EXISTS ix_stats_time_request ON stats (time_request)
+  INCLUDE (app_name, uri_address, ip_address);
+
+CREATE INDEX IF NOT EXISTS ix_stats_uri_time_request ON stats (uri_address, time_request)
+  INCLUDE (app_name, ip_address);
+
+CREATE TABLE IF NOT EXISTS stats_hourly (
+  app_name VARCHAR(255) NOT NULL,
+  uri_address VARCHAR(512) NOT NULL,
+  bucket TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  hits BIGINT NOT NULL,
+  sketch BYTEA,
+  CONSTRAINT pk_stats_hourly PRIMARY KEY (app_name, uri_address, bucket)
+);
+
+CREATE INDEX IF NOT EXISTS ix_stats_hourly_bucket ON stats_hourly (bucket);
+
+CREATE INDEX IF NOT EXISTS ix_stats_hourly_uri_bucket ON stats_hourly (uri_address, bucket);
\ No newline at end of file
@@ -0,0 +1,64 @@
+package ru.practicum;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Основа интеграционных тестов с базой данных PostgreSQL в контейнере.
+ * Контейнер запускается один раз на все тесты, схема создается сценарием schema.sql.
+ * Без Docker тесты пропускаются при локальной сборке и проваливаются в CI (задана переменная окружения CI),
+ * чтобы проверки с базой данных не отключались незаметно.
+ */
+@SpringBootTest
+public abstract class PostgresContainerTest {
+    /**
+     * Условие выполнения тестов. Регистрируется полем, чтобы проверяться после условий тестовых классов:
+     * тест, отключенный собственным условием, не проваливается в CI из-за отсутствия Docker.
+     */
+    @RegisterExtension
+    static final DockerCondition DOCKER_CONDITION = new DockerCondition();
+    /**
+     * Контейнер базы данных.
+     */
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    static {
+        if (DockerClientFactory.instance().isDockerAvailable()) {
+            POSTGRES.start();
+        }
+    }
+
+    /**
+     * Подключает приложение к базе данных в контейнере.
+     */
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    /**
+     * Условие выполнения тестов с базой данных в контейнере.
+     * Без Docker тесты отключаются, а в CI проваливаются.
+     */
+    static class DockerCondition implements ExecutionCondition {
+        @Override
+        public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+            if (DockerClientFactory.instance().isDockerAvailable()) {
+                return ConditionEvaluationResult.enabled("Docker доступен.");
+            }
+            if (System.getenv("CI") != null) {
+                throw new IllegalStateException("Docker недоступен, тесты с базой данных не могут быть выполнены.");
+            }
+            return ConditionEvaluationResult.disabled("Docker недоступен.");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.PostgresContainerTest;
+import ru.practicum.model.Stat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверка сохранения статистических данных командой COPY.
+ */
+class StatBatchRepositoryTest extends PostgresContainerTest {
+    @Autowired
+    private StatRepository statRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM stats");
+    }
+
+    @Test
+    void insertAllCopiesRowsWithEscapedValues() {
+        LocalDateTime timestamp = LocalDateTime.of(2030, 1, 1, 12, 30, 15);
+        List<Stat> stats = List.of(
+                stat("/events/1", timestamp),
+                stat("/events?text=\"Концерт, джаз\"", timestamp.plusMinutes(1)),
+                stat("/events/3", timestamp.plusMinutes(2)));
+
+        transactionTemplate.executeWithoutResult(status -> statRepository.insertAll(stats));
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT app_name, uri_address, ip_address, " +
+                "time_request FROM stats ORDER BY time_request");
+        assertEquals(3, rows.size());
+        for (int i = 0; i < stats.size(); i++) {
+            assertEquals(stats.get(i).getApp(), rows.get(i).get("app_name"));
+            assertEquals(stats.get(i).getUri(), rows.get(i).get("uri_address"));
+            assertEquals(stats.get(i).getIp(), rows.get(i).get("ip_address"));
+            assertEquals(Timestamp.valueOf(stats.get(i).getTimestamp()), rows.get(i).get("time_request"));
+        }
+    }
+
+    private Stat stat(String uri, LocalDateTime timestamp) {
+        return Stat.builder()
+                .app("ewm-main-service")
+                .uri(uri)
+                .ip("192.168.0.1")
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.PostgresContainerTest;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка создания помесячных секций статистики, когда секция по умолчанию уже содержит данные месяца.
+ */
+class StatPartitionManagerTest extends PostgresContainerTest {
+    /**
+     * Количество месяцев, на которые секции создаются заранее в проверке.
+     */
+    private static final int MONTHS_AHEAD = 6;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM stats");
+        for (int i = 3; i <= MONTHS_AHEAD; i++) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition(YearMonth.now().plusMonths(i)));
+        }
+    }
+
+    @Test
+    void maintainMovesDefaultPartitionRowsIntoNewMonthPartition() {
+        YearMonth month = YearMonth.now().plusMonths(MONTHS_AHEAD);
+        YearMonth later = month.plusMonths(1);
+        hit(month, 1);
+        hit(month, 15);
+        hit(month, month.lengthOfMonth());
+        hit(later, 1);
+        assertEquals(4, count("stats_default"));
+
+        new StatPartitionManager(jdbcTemplate, transactionTemplate, MONTHS_AHEAD, 13).maintain();
+
+        assertEquals(3, count(partition(month)));
+        assertEquals(1, count("stats_default"));
+        assertEquals(4, count("stats"));
+        assertTrue(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = 'stats' AND c.relname = 'stats_default')", Boolean.class));
+        hit(later.plusMonths(1), 1);
+        assertEquals(2, count("stats_default"));
+    }
+
+    private void hit(YearMonth month, int day) {
+        jdbcTemplate.update("INSERT INTO stats (app_name, uri_address, ip_address, time_request) " +
+                "VALUES ('ewm-main-service', '/events/1', '192.168.0.1', ?)",
+                Timestamp.valueOf(month.atDay(day).atTime(12, 0)));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private String partition(YearMonth month) {
+        return "stats_" + month.format(DateTimeFormatter.ofPattern("'y'yyyy'm'MM"));
+    }
+}